@@ -0,0 +1,12 @@
+package com.collaborativeeditor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background maintenance jobs (snapshot recompression, retention).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
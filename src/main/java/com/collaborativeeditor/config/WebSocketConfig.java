@@ -0,0 +1,22 @@
+package com.collaborativeeditor.config;
+
+import com.collaborativeeditor.websocket.DocumentRoomHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final DocumentRoomHandler documentRoomHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // One room per document: ws://localhost:8085/ws/documents/{documentId}
+        registry.addHandler(documentRoomHandler, "/ws/documents/*");
+    }
+}
@@ -3,8 +3,12 @@ package com.collaborativeeditor.controller;
 import com.collaborativeeditor.dto.AddCollaboratorRequest;
 import com.collaborativeeditor.dto.ApiResponse;
 import com.collaborativeeditor.dto.ExportDocumentRequest;
+import com.collaborativeeditor.dto.NotificationPage;
+import com.collaborativeeditor.event.CollaboratorJoined;
+import com.collaborativeeditor.event.Exported;
 import com.collaborativeeditor.module1.creation.model.Document;
 import com.collaborativeeditor.module4.collaboration.observer.Collaborator;
+import com.collaborativeeditor.module4.collaboration.observer.CollaboratorNotification;
 import com.collaborativeeditor.module4.collaboration.observer.DocumentObserver;
 import com.collaborativeeditor.module4.collaboration.observer.DocumentSubject;
 import com.collaborativeeditor.module4.collaboration.strategy.ExportContext;
@@ -12,6 +16,7 @@ import com.collaborativeeditor.module4.collaboration.strategy.ExportStrategy;
 import com.collaborativeeditor.service.DocumentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,8 +35,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CollaborationController {
 
+        private static final int MAX_NOTIFICATION_PAGE_SIZE = 100;
+
         private final DocumentService documentService;
         private final DocumentSubject documentSubject;
+        private final ApplicationEventPublisher eventPublisher;
         private final ExportContext exportContext;
 
         /**
@@ -66,9 +74,8 @@ public class CollaborationController {
                 documentSubject.attach(request.getDocumentId(), collaborator);
 
                 // Notify all collaborators
-                documentSubject.notifyObservers(
-                                request.getDocumentId(),
-                                collaborator.getObserverName() + " joined the document");
+                eventPublisher.publishEvent(
+                                new CollaboratorJoined(request.getDocumentId(), collaborator.getObserverName()));
 
                 Map<String, Object> result = new HashMap<>();
                 result.put("collaboratorId", collaboratorId);
@@ -105,6 +112,42 @@ public class CollaborationController {
                                 ApiResponse.success("Collaborators retrieved successfully", collaborators));
         }
 
+        /**
+         * Gets a page of a collaborator's notifications, newest first.
+         * GET /api/collaborators/notifications?collaboratorId={id}&before={cursor}&limit={n}
+         * 
+         * @param collaboratorId collaborator ID returned when the collaborator was added
+         * @param before         cursor returned with the previous page; omit for the newest notifications
+         * @param limit          page size (at most {@value #MAX_NOTIFICATION_PAGE_SIZE})
+         * @return page of notifications
+         */
+        @GetMapping("/collaborators/notifications")
+        public ResponseEntity<ApiResponse<NotificationPage>> listNotifications(
+                        @RequestParam String collaboratorId,
+                        @RequestParam(required = false) Long before,
+                        @RequestParam(defaultValue = "20") int limit) {
+
+                int pageSize = Math.max(1, Math.min(limit, MAX_NOTIFICATION_PAGE_SIZE));
+                // One extra row tells whether another page follows
+                List<CollaboratorNotification> notifications = documentSubject.getNotifications(
+                                collaboratorId, before, pageSize + 1);
+                if (notifications == null) {
+                        return ResponseEntity
+                                        .status(HttpStatus.NOT_FOUND)
+                                        .body(ApiResponse.error("Collaborator not found"));
+                }
+
+                boolean hasMore = notifications.size() > pageSize;
+                if (hasMore) {
+                        notifications = notifications.subList(0, pageSize);
+                }
+                Long nextCursor = hasMore ? notifications.get(pageSize - 1).getId() : null;
+
+                return ResponseEntity.ok(
+                                ApiResponse.success("Notifications retrieved successfully",
+                                                new NotificationPage(notifications, nextCursor, hasMore)));
+        }
+
         /**
          * Exports a document in a specific format.
          * POST /api/export/document
@@ -141,9 +184,7 @@ public class CollaborationController {
                         result.put("encoding", "base64"); // Inform client
 
                         // Notify collaborators about the export
-                        documentSubject.notifyObservers(
-                                        request.getDocumentId(),
-                                        "Document exported to " + request.getFormat().toUpperCase());
+                        eventPublisher.publishEvent(new Exported(request.getDocumentId(), request.getFormat()));
 
                         return ResponseEntity.ok(
                                         ApiResponse.success("Document exported successfully", result));
@@ -3,20 +3,38 @@ package com.collaborativeeditor.controller;
 import com.collaborativeeditor.dto.AddElementRequest;
 import com.collaborativeeditor.dto.ApiResponse;
 import com.collaborativeeditor.dto.CreateDocumentRequest;
+import com.collaborativeeditor.dto.DocumentChangesResponse;
+import com.collaborativeeditor.dto.DeleteElementRequest;
+import com.collaborativeeditor.dto.DocumentSummaryPage;
+import com.collaborativeeditor.dto.MoveElementRequest;
+import com.collaborativeeditor.dto.DocumentVersionInfo;
+import com.collaborativeeditor.dto.UpdateElementRequest;
 
 import com.collaborativeeditor.module1.creation.builder.DocumentBuilder;
 
 import com.collaborativeeditor.module1.creation.model.*;
+import com.collaborativeeditor.module3.versioning.command.CommandInvoker;
+import com.collaborativeeditor.module3.versioning.journal.DocumentChange;
+import com.collaborativeeditor.module3.versioning.journal.DocumentChangeJournal;
+import com.collaborativeeditor.module3.versioning.memento.MementoCaretaker;
+import com.collaborativeeditor.service.DocumentEditService;
 import com.collaborativeeditor.service.DocumentService;
-import com.collaborativeeditor.module4.collaboration.observer.DocumentSubject;
+import com.collaborativeeditor.service.DocumentUpdateBroadcaster;
+import com.collaborativeeditor.service.EditResult;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST Controller for Module 1: Document Creation.
@@ -29,9 +47,16 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CreationController {
 
+        /** Upper bound on IDs accepted by the batch version probe. */
+        private static final int MAX_VERSION_PROBE_IDS = 100;
+
         private final DocumentBuilder documentBuilder;
         private final DocumentService documentService;
-        private final DocumentSubject documentSubject;
+        private final DocumentEditService documentEditService;
+        private final DocumentUpdateBroadcaster updateBroadcaster;
+        private final DocumentChangeJournal changeJournal;
+        private final MementoCaretaker mementoCaretaker;
+        private final CommandInvoker commandInvoker;
 
         /**
          * Creates a new document using the Builder pattern.
@@ -68,67 +93,170 @@ public class CreationController {
         @PostMapping("/add-element")
         public ResponseEntity<ApiResponse<Document>> addElement(
                         @Valid @RequestBody AddElementRequest request) {
+                return toResponse(documentEditService.addElement(request));
+        }
+
+        /**
+         * Gets a document by ID.
+         * GET /api/documents/{id}
+         * 
+         * Responses carry a strong ETag derived from the document ID and its
+         * optimistic-lock version. When the client sends a matching If-None-Match,
+         * the check is answered from a version-only query and a 304 is returned
+         * without loading the document's elements.
+         * 
+         * @param id      document ID
+         * @param request current request, used for the conditional check
+         * @return document
+         */
+        @GetMapping("/{id}")
+        public ResponseEntity<ApiResponse<Document>> getDocument(@PathVariable String id, WebRequest request) {
+                if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                        Long currentVersion = documentService.getDocumentVersion(id);
+                        if (currentVersion != null && request.checkNotModified(documentETag(id, currentVersion))) {
+                                // Status and ETag headers were already set by checkNotModified
+                                return null;
+                        }
+                }
+
+                Document document = documentService.getDocument(id);
 
-                Document document = documentService.getDocument(request.getDocumentId());
                 if (document == null) {
                         return ResponseEntity
                                         .status(HttpStatus.NOT_FOUND)
                                         .body(ApiResponse.error("Document not found"));
                 }
 
-                String type = request.getElementType();
-                Map<String, Object> data = request.getElementData();
+                return ResponseEntity.ok()
+                                .cacheControl(CacheControl.noCache())
+                                .eTag(documentETag(document.getId(), document.getVersion()))
+                                .body(ApiResponse.success("Document retrieved successfully", document));
+        }
 
-                if (type == null || data == null) {
+        private static String documentETag(String id, Long version) {
+                return "\"" + id + "-" + version + "\"";
+        }
+
+        /**
+         * Gets the current version of a document without loading its content.
+         * GET /api/documents/{id}/version
+         * 
+         * Lets clients cheaply check whether they need to reload a document.
+         * 
+         * @param id document ID
+         * @return id, version and last modification time
+         */
+        @GetMapping("/{id}/version")
+        public ResponseEntity<ApiResponse<DocumentVersionInfo>> getDocumentVersion(@PathVariable String id) {
+                DocumentVersionInfo info = documentService.getDocumentVersionInfo(id);
+
+                if (info == null) {
                         return ResponseEntity
-                                        .status(HttpStatus.BAD_REQUEST)
-                                        .body(ApiResponse.error("Invalid element data"));
+                                        .status(HttpStatus.NOT_FOUND)
+                                        .body(ApiResponse.error("Document not found"));
                 }
 
-                Element element = mapRawDataToElement(type, data);
+                return ResponseEntity.ok(
+                                ApiResponse.success("Document version retrieved successfully", info));
+        }
 
-                document.addElement(element);
-                documentService.saveDocument(document);
+        /**
+         * Gets the current versions of several documents at once.
+         * GET /api/documents/versions?ids={id1},{id2}
+         * 
+         * @param ids document IDs
+         * @return version info of the documents that exist
+         */
+        @GetMapping("/versions")
+        public ResponseEntity<ApiResponse<List<DocumentVersionInfo>>> getDocumentVersions(
+                        @RequestParam List<String> ids) {
 
-                // Notify observers for real-time updates
-                documentSubject.notifyObservers(request.getDocumentId(), "Element added: " + type);
+                if (ids.size() > MAX_VERSION_PROBE_IDS) {
+                        return ResponseEntity
+                                        .status(HttpStatus.BAD_REQUEST)
+                                        .body(ApiResponse.error("At most " + MAX_VERSION_PROBE_IDS
+                                                        + " document IDs can be probed at once"));
+                }
 
                 return ResponseEntity.ok(
-                                ApiResponse.success("Element added successfully", document));
+                                ApiResponse.success("Document versions retrieved successfully",
+                                                documentService.getDocumentVersionInfos(ids)));
         }
 
         /**
-         * Gets a document by ID.
-         * GET /api/documents/{id}
+         * Gets the element-level changes of a document since a given version.
+         * GET /api/documents/{id}/changes?since={version}
          * 
-         * @param id document ID
-         * @return document
+         * Returns only the deltas when the change journal covers the requested
+         * range; otherwise falls back to a full snapshot of the document.
+         * 
+         * @param id    document ID
+         * @param since last version the client has applied
+         * @return deltas or full snapshot
          */
-        @GetMapping("/{id}")
-        public ResponseEntity<ApiResponse<Document>> getDocument(@PathVariable String id) {
-                Document document = documentService.getDocument(id);
+        @GetMapping("/{id}/changes")
+        public ResponseEntity<ApiResponse<DocumentChangesResponse>> getChangesSince(
+                        @PathVariable String id,
+                        @RequestParam long since) {
+
+                Long currentVersion = documentService.getDocumentVersion(id);
+                if (currentVersion == null) {
+                        return ResponseEntity
+                                        .status(HttpStatus.NOT_FOUND)
+                                        .body(ApiResponse.error("Document not found"));
+                }
 
+                Optional<List<DocumentChange>> changes = changeJournal.getChangesSince(id, since, currentVersion);
+                if (changes.isPresent()) {
+                        return ResponseEntity.ok(ApiResponse.success("Changes retrieved successfully",
+                                        DocumentChangesResponse.deltas(id, since, currentVersion, changes.get())));
+                }
+
+                Document document = documentService.getDocument(id);
                 if (document == null) {
                         return ResponseEntity
                                         .status(HttpStatus.NOT_FOUND)
                                         .body(ApiResponse.error("Document not found"));
                 }
 
-                return ResponseEntity.ok(
-                                ApiResponse.success("Document retrieved successfully", document));
+                return ResponseEntity.ok(ApiResponse.success("Full snapshot required",
+                                DocumentChangesResponse.snapshot(document, since)));
         }
 
         /**
-         * Gets all documents.
-         * GET /api/documents
+         * Opens a Server-Sent Events stream of change notifications for a document.
+         * GET /api/documents/{id}/events
+         * 
+         * Each committed mutation emits a "document-updated" event carrying the new
+         * version, so editors can reload only when something actually changed.
          * 
-         * @return list of documents
+         * @param id document ID
+         * @return event stream
+         */
+        @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public ResponseEntity<SseEmitter> streamDocumentEvents(@PathVariable String id) {
+                if (documentService.getDocumentVersion(id) == null) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                }
+
+                return ResponseEntity.ok(updateBroadcaster.subscribe(id));
+        }
+
+        /**
+         * Lists active documents, one page at a time.
+         * GET /api/documents?limit={n}&cursor={cursor}&order={desc|asc}
+         * 
+         * @param limit  page size (at most {@value DocumentService#MAX_PAGE_SIZE})
+         * @param cursor nextCursor of the previous page, omitted for the first page
+         * @param order  sort direction on last modification time
+         * @return page of document summaries
          */
         @GetMapping
-        public ResponseEntity<ApiResponse<java.util.List<Document>>> getAllDocuments() {
-                return ResponseEntity.ok(
-                                ApiResponse.success("Documents retrieved successfully",
-                                                documentService.getAllDocuments()));
+        public ResponseEntity<ApiResponse<DocumentSummaryPage>> getAllDocuments(
+                        @RequestParam(defaultValue = "20") int limit,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "desc") String order) {
+                return listDocuments(false, limit, cursor, order, "Documents retrieved successfully");
         }
 
         /**
@@ -139,32 +267,8 @@ public class CreationController {
          * @return updated document
          */
         @PostMapping("/delete-element")
-        public ResponseEntity<ApiResponse<Document>> deleteElement(@RequestBody Map<String, String> request) {
-                String documentId = request.get("documentId");
-                String elementId = request.get("elementId");
-
-                if (documentId == null || elementId == null) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                        .body(ApiResponse.error("Missing documentId or elementId"));
-                }
-
-                Document document = documentService.getDocument(documentId);
-                if (document == null) {
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Document not found"));
-                }
-
-                boolean removed = document.getElements().removeIf(e -> e.getId().equals(Long.parseLong(elementId)));
-
-                if (removed) {
-                        document.setLastModified(java.time.LocalDateTime.now());
-                        documentService.saveDocument(document);
-                        documentSubject.notifyObservers(documentId, "Element deleted");
-                        return ResponseEntity.ok(ApiResponse.success("Element deleted successfully", document));
-                } else {
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Element not found"));
-                }
+        public ResponseEntity<ApiResponse<Document>> deleteElement(@Valid @RequestBody DeleteElementRequest request) {
+                return toResponse(documentEditService.deleteElement(request));
         }
 
         /**
@@ -176,127 +280,32 @@ public class CreationController {
          */
         @PostMapping("/update-element")
         public ResponseEntity<ApiResponse<Document>> updateElement(
-                        @Valid @RequestBody com.collaborativeeditor.dto.UpdateElementRequest request) {
-
-                Document document = documentService.getDocument(request.getDocumentId());
-                if (document == null) {
-                        return ResponseEntity
-                                        .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Document not found"));
-                }
-
-                Element elementToUpdate = document.getElements().stream()
-                                .filter(e -> e.getId().equals(request.getElementId()))
-                                .findFirst()
-                                .orElse(null);
-
-                if (elementToUpdate == null) {
-                        return ResponseEntity
-                                        .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Element not found"));
-                }
-
-                updateElementData(elementToUpdate, request.getElementData());
-                document.setLastModified(java.time.LocalDateTime.now()); // Force version increment
-                documentService.saveDocument(document);
-
-                return ResponseEntity.ok(
-                                ApiResponse.success("Element updated successfully", document));
-        }
-
-        private void updateElementData(Element element, Map<String, Object> data) {
-                if (element instanceof Paragraph paragraph && data.containsKey("content")) {
-                        paragraph.setContent((String) data.get("content"));
-                } else if (element instanceof Heading heading) {
-                        if (data.containsKey("content"))
-                                heading.setContent((String) data.get("content"));
-                        if (data.containsKey("level"))
-                                heading.setLevel(data.get("level") instanceof Integer ? (Integer) data.get("level")
-                                                : Integer.parseInt(data.get("level").toString()));
-                } else if (element instanceof Image image) {
-                        if (data.containsKey("url"))
-                                image.setUrl((String) data.get("url"));
-                        if (data.containsKey("altText"))
-                                image.setAltText((String) data.get("altText"));
-                } else if (element instanceof ListElement list) {
-                        if (data.containsKey("items")) {
-                                @SuppressWarnings("unchecked")
-                                List<String> items = (List<String>) data.get("items");
-                                list.setItems(items);
-                        }
-                        if (data.containsKey("ordered"))
-                                list.setOrdered((Boolean) data.getOrDefault("ordered", false));
-                } else if (element instanceof CodeBlock code) {
-                        if (data.containsKey("content"))
-                                code.setContent((String) data.get("content"));
-                        if (data.containsKey("language"))
-                                code.setLanguage((String) data.get("language"));
-                }
+                        @Valid @RequestBody UpdateElementRequest request) {
+                return toResponse(documentEditService.updateElement(request));
         }
 
         /**
-         * Creates an element using the appropriate factory (Factory Method pattern).
+         * Moves an element to another position in a document.
+         * POST /api/documents/move-element
          * 
-         * @param elementType type of element
-         * @param elementData element configuration data
-         * @return created element
+         * Only the moved element's order key is rewritten.
+         * 
+         * @param request move request
+         * @return updated document
          */
+        @PostMapping("/move-element")
+        public ResponseEntity<ApiResponse<Document>> moveElement(@Valid @RequestBody MoveElementRequest request) {
+                return toResponse(documentEditService.moveElement(request));
+        }
 
-        private Element mapRawDataToElement(String type, Map<String, Object> data) {
-                switch (type.toLowerCase()) {
-                        case "paragraph":
-                                Paragraph p = new Paragraph();
-                                if (data.containsKey("content")) {
-                                        p.setContent((String) data.get("content"));
-                                }
-                                return p;
-                        case "heading":
-                                Heading h = new Heading();
-                                if (data.containsKey("content")) {
-                                        h.setContent((String) data.get("content"));
-                                }
-                                if (data.containsKey("level")) {
-                                        Object levelObj = data.get("level");
-                                        h.setLevel(levelObj instanceof Integer ? (Integer) levelObj
-                                                        : Integer.parseInt(levelObj.toString()));
-                                } else {
-                                        h.setLevel(1);
-                                }
-                                return h;
-                        case "image":
-                                Image i = new Image();
-                                if (data.containsKey("url")) {
-                                        i.setUrl((String) data.get("url"));
-                                }
-                                if (data.containsKey("altText")) {
-                                        i.setAltText((String) data.get("altText"));
-                                }
-                                return i;
-                        case "list":
-                                ListElement l = new ListElement();
-                                if (data.containsKey("items")) {
-                                        @SuppressWarnings("unchecked")
-                                        List<String> items = (List<String>) data.get("items");
-                                        l.setItems(items);
-                                }
-                                if (data.containsKey("ordered")) {
-                                        l.setOrdered((Boolean) data.getOrDefault("ordered", false));
-                                }
-                                return l;
-                        case "code":
-                                CodeBlock c = new CodeBlock();
-                                if (data.containsKey("content"))
-                                        c.setContent((String) data.get("content"));
-                                if (data.containsKey("language"))
-                                        c.setLanguage((String) data.get("language"));
-                                return c;
-                        default:
-                                Paragraph fallback = new Paragraph();
-                                if (data.containsKey("content")) {
-                                        fallback.setContent((String) data.get("content"));
-                                }
-                                return fallback;
-                }
+        private ResponseEntity<ApiResponse<Document>> toResponse(EditResult result) {
+                return switch (result.status()) {
+                        case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                        .body(ApiResponse.error(result.message()));
+                        case INVALID -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(ApiResponse.error(result.message()));
+                        default -> ResponseEntity.ok(ApiResponse.success(result.message(), result.document()));
+                };
         }
 
         /**
@@ -321,16 +330,32 @@ public class CreationController {
         }
 
         /**
-         * Gets documents in the recycle bin.
-         * GET /api/documents/recycle-bin
+         * Lists documents in the recycle bin, one page at a time.
+         * GET /api/documents/recycle-bin?limit={n}&cursor={cursor}&order={desc|asc}
          *
-         * @return list of deleted documents
+         * @param limit  page size (at most {@value DocumentService#MAX_PAGE_SIZE})
+         * @param cursor nextCursor of the previous page, omitted for the first page
+         * @param order  sort direction on last modification time
+         * @return page of deleted document summaries
          */
         @GetMapping("/recycle-bin")
-        public ResponseEntity<ApiResponse<List<Document>>> getRecycleBin() {
-                return ResponseEntity.ok(
-                                ApiResponse.success("Recycle bin retrieved successfully",
-                                                documentService.getRecycleBinDocuments()));
+        public ResponseEntity<ApiResponse<DocumentSummaryPage>> getRecycleBin(
+                        @RequestParam(defaultValue = "20") int limit,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "desc") String order) {
+                return listDocuments(true, limit, cursor, order, "Recycle bin retrieved successfully");
+        }
+
+        private ResponseEntity<ApiResponse<DocumentSummaryPage>> listDocuments(boolean deleted, int limit,
+                        String cursor, String order, String message) {
+                try {
+                        DocumentSummaryPage page = documentService.listDocuments(
+                                        deleted, cursor, limit, Sort.Direction.fromString(order));
+                        return ResponseEntity.ok(ApiResponse.success(message, page));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(ApiResponse.error(e.getMessage()));
+                }
         }
 
         /**
@@ -360,6 +385,9 @@ public class CreationController {
         public ResponseEntity<ApiResponse<String>> permanentDeleteDocument(@PathVariable String id) {
                 boolean deleted = documentService.permanentDeleteDocument(id);
                 if (deleted) {
+                        changeJournal.clear(id);
+                        commandInvoker.clear(id);
+                        mementoCaretaker.clearHistory(id);
                         return ResponseEntity.ok(ApiResponse.success("Document permanently deleted", id));
                 }
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Document not found"));
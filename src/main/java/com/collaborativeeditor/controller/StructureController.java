@@ -8,8 +8,9 @@ import com.collaborativeeditor.module1.creation.model.Element;
 import com.collaborativeeditor.module2.structure.composite.DocumentComponent;
 import com.collaborativeeditor.module2.structure.composite.ElementLeaf;
 import com.collaborativeeditor.module2.structure.composite.Section;
-import com.collaborativeeditor.module2.structure.decorator.*;
+import com.collaborativeeditor.service.DocumentEditService;
 import com.collaborativeeditor.service.DocumentService;
+import com.collaborativeeditor.service.EditResult;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class StructureController {
 
     private final DocumentService documentService;
+    private final DocumentEditService documentEditService;
 
     /**
      * Gets the hierarchical structure of a document.
@@ -80,62 +82,13 @@ public class StructureController {
     public ResponseEntity<ApiResponse<Document>> applyStyles(
             @Valid @RequestBody ApplyStyleRequest request) {
 
-        Document document = documentService.getDocument(request.getDocumentId());
-        if (document == null) {
-            return ResponseEntity
-                    .status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error("Document not found"));
-        }
-
-        if (request.getElementIndex() < 0 ||
-                request.getElementIndex() >= document.getElements().size()) {
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(ApiResponse.error("Invalid element index"));
-        }
-
-        // Get the element to style
-        Element element = document.getElements().get(request.getElementIndex());
-
-        // Apply decorators based on requested styles
-        Element styledElement = applyDecorators(element, request.getStyles());
-
-        // Replace the element with the styled version
-        document.getElements().set(request.getElementIndex(), styledElement);
-        documentService.saveDocument(document);
-
-        return ResponseEntity.ok(
-                ApiResponse.success("Styles applied successfully", document));
-    }
-
-    /**
-     * Applies multiple decorators to an element.
-     * Demonstrates the Decorator pattern's ability to stack behaviors.
-     * 
-     * @param element base element
-     * @param styles  list of styles to apply
-     * @return decorated element
-     */
-    private Element applyDecorators(Element element, java.util.List<String> styles) {
-        Element result = element;
-
-        for (String style : styles) {
-            result = switch (style.toLowerCase()) {
-                case "bold" -> new BoldDecorator(result);
-                case "italic" -> new ItalicDecorator(result);
-                default -> {
-                    if (style.startsWith("color:")) {
-                        String color = style.substring(6);
-                        yield new ColorDecorator(result, color);
-                    } else if (style.startsWith("size:")) {
-                        String size = style.substring(5);
-                        yield new SizeDecorator(result, size);
-                    }
-                    yield result;
-                }
-            };
-        }
-
-        return result;
+        EditResult result = documentEditService.applyStyles(request);
+        return switch (result.status()) {
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(result.message()));
+            case INVALID -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(result.message()));
+            default -> ResponseEntity.ok(ApiResponse.success(result.message(), result.document()));
+        };
     }
 }
@@ -1,19 +1,25 @@
 package com.collaborativeeditor.controller;
 
 import com.collaborativeeditor.dto.ApiResponse;
+import com.collaborativeeditor.dto.DocumentVersionPage;
+import com.collaborativeeditor.dto.DocumentVersionSummary;
+import com.collaborativeeditor.dto.VersionDiff;
 import com.collaborativeeditor.module1.creation.model.Document;
 import com.collaborativeeditor.module3.versioning.command.CommandInvoker;
+import com.collaborativeeditor.module3.versioning.diff.VersionDiffer;
 import com.collaborativeeditor.module3.versioning.memento.DocumentMemento;
 import com.collaborativeeditor.module3.versioning.memento.DocumentOriginator;
 import com.collaborativeeditor.module3.versioning.memento.MementoCaretaker;
+import com.collaborativeeditor.service.DocumentEditService;
 import com.collaborativeeditor.service.DocumentService;
+import com.collaborativeeditor.service.EditResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -28,15 +34,21 @@ import java.util.HashMap;
 @RequiredArgsConstructor
 public class VersioningController {
 
+        /** Upper bound on the page size of the version listing. */
+        private static final int MAX_VERSION_PAGE_SIZE = 100;
+
         private final DocumentService documentService;
         private final CommandInvoker commandInvoker;
         private final MementoCaretaker mementoCaretaker;
+        private final DocumentEditService documentEditService;
+        private final VersionDiffer versionDiffer;
 
         /**
          * Undoes the last operation on a document.
          * POST /api/documents/undo?documentId={id}
          * 
-         * Uses the Command pattern to revert the last change.
+         * Uses the Command pattern to revert the last change recorded in the
+         * document's persisted operation log.
          * 
          * @param documentId document ID
          * @return updated document
@@ -45,22 +57,24 @@ public class VersioningController {
         public ResponseEntity<ApiResponse<Map<String, Object>>> undoLastOperation(
                         @RequestParam String documentId) {
 
-                Document document = documentService.getDocument(documentId);
-                if (document == null) {
+                EditResult edit = documentEditService.undo(documentId);
+                if (edit.status() == EditResult.Status.NOT_FOUND) {
                         return ResponseEntity
                                         .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Document not found"));
+                                        .body(ApiResponse.error(edit.message()));
                 }
-
-                boolean success = commandInvoker.undo(documentId);
+                boolean success = edit.status() == EditResult.Status.APPLIED;
+                Document document = edit.document();
 
                 Map<String, Object> result = new HashMap<>();
                 result.put("success", success);
                 result.put("document", document);
-                result.put("message", success ? "Undo successful" : "Nothing to undo");
+                result.put("message", edit.message());
+                result.put("undoDescription", commandInvoker.getUndoDescription(document));
+                result.put("redoDescription", commandInvoker.getRedoDescription(document));
 
                 return ResponseEntity.ok(
-                                ApiResponse.success(success ? "Undo successful" : "Nothing to undo", result));
+                                ApiResponse.success(edit.message(), result));
         }
 
         /**
@@ -76,53 +90,75 @@ public class VersioningController {
         public ResponseEntity<ApiResponse<Map<String, Object>>> redoLastOperation(
                         @RequestParam String documentId) {
 
-                Document document = documentService.getDocument(documentId);
-                if (document == null) {
+                EditResult edit = documentEditService.redo(documentId);
+                if (edit.status() == EditResult.Status.NOT_FOUND) {
                         return ResponseEntity
                                         .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Document not found"));
+                                        .body(ApiResponse.error(edit.message()));
                 }
-
-                boolean success = commandInvoker.redo(documentId);
+                boolean success = edit.status() == EditResult.Status.APPLIED;
+                Document document = edit.document();
 
                 Map<String, Object> result = new HashMap<>();
                 result.put("success", success);
                 result.put("document", document);
-                result.put("message", success ? "Redo successful" : "Nothing to redo");
+                result.put("message", edit.message());
+                result.put("undoDescription", commandInvoker.getUndoDescription(document));
+                result.put("redoDescription", commandInvoker.getRedoDescription(document));
 
                 return ResponseEntity.ok(
-                                ApiResponse.success(success ? "Redo successful" : "Nothing to redo", result));
+                                ApiResponse.success(edit.message(), result));
         }
 
         /**
-         * Lists all versions of a document.
-         * GET /api/versions/list?documentId={id}
+         * Lists the versions of a document, newest first.
+         * GET /api/versions/list?documentId={id}&page={n}&size={n}
          * 
-         * Uses the Memento pattern to retrieve version history.
+         * Reads only version metadata columns; snapshots are not loaded.
          * 
          * @param documentId document ID
-         * @return list of versions
+         * @param page       zero-based page number
+         * @param size       page size (at most {@value #MAX_VERSION_PAGE_SIZE})
+         * @return page of versions
          */
         @GetMapping("/versions/list")
-        public ResponseEntity<ApiResponse<List<Map<String, Object>>>> listVersions(
-                        @RequestParam String documentId) {
-
-                List<DocumentMemento> mementos = mementoCaretaker.getAllMementos(documentId);
+        public ResponseEntity<ApiResponse<DocumentVersionPage>> listVersions(
+                        @RequestParam String documentId,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size) {
 
-                List<Map<String, Object>> versions = mementos.stream()
-                                .map(memento -> {
-                                        Map<String, Object> versionInfo = new HashMap<>();
-                                        versionInfo.put("version", memento.getVersion());
-                                        versionInfo.put("snapshotTime", memento.getSnapshotTime());
-                                        versionInfo.put("title", memento.getTitle());
-                                        versionInfo.put("author", memento.getAuthor());
-                                        versionInfo.put("elementCount", memento.getElements().size());
-                                        return versionInfo;
-                                })
-                                .collect(Collectors.toList());
+                int pageNumber = Math.max(page, 0);
+                int pageSize = Math.max(1, Math.min(size, MAX_VERSION_PAGE_SIZE));
+                Slice<DocumentVersionSummary> versions = mementoCaretaker.listVersions(documentId, pageNumber, pageSize);
 
                 return ResponseEntity.ok(
-                                ApiResponse.success("Versions retrieved successfully", versions));
+                                ApiResponse.success("Versions retrieved successfully",
+                                                new DocumentVersionPage(versions.getContent(), pageNumber, pageSize,
+                                                                versions.hasNext())));
+        }
+
+        /**
+         * Compares two versions of a document.
+         * GET /api/versions/diff?documentId={id}&from={version}&to={version}
+         * 
+         * Computed from the stored snapshots; the live document is not touched.
+         * 
+         * @param documentId document ID
+         * @param from       older version
+         * @param to         newer version
+         * @return element-level differences
+         */
+        @GetMapping("/versions/diff")
+        public ResponseEntity<ApiResponse<VersionDiff>> diffVersions(
+                        @RequestParam String documentId,
+                        @RequestParam String from,
+                        @RequestParam String to) {
+
+                return versionDiffer.diff(documentId, from, to)
+                                .map(diff -> ResponseEntity.ok(ApiResponse.success("Diff computed successfully", diff)))
+                                .orElseGet(() -> ResponseEntity
+                                                .status(HttpStatus.NOT_FOUND)
+                                                .body(ApiResponse.error("Version not found")));
         }
 
         /**
@@ -140,27 +176,15 @@ public class VersioningController {
                         @RequestParam String documentId,
                         @RequestParam String version) {
 
-                Document document = documentService.getDocument(documentId);
-                if (document == null) {
+                EditResult edit = documentEditService.restoreVersion(documentId, version);
+                if (edit.status() == EditResult.Status.NOT_FOUND) {
                         return ResponseEntity
                                         .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Document not found"));
-                }
-
-                DocumentMemento memento = mementoCaretaker.getMemento(documentId, version);
-                if (memento == null) {
-                        return ResponseEntity
-                                        .status(HttpStatus.NOT_FOUND)
-                                        .body(ApiResponse.error("Version not found"));
+                                        .body(ApiResponse.error(edit.message()));
                 }
 
-                DocumentOriginator originator = new DocumentOriginator(document);
-                originator.restoreFromMemento(memento);
-
-                documentService.saveDocument(document);
-
                 return ResponseEntity.ok(
-                                ApiResponse.success("Version restored successfully", document));
+                                ApiResponse.success(edit.message(), edit.document()));
         }
 
         /**
@@ -168,8 +192,8 @@ public class VersioningController {
          * POST /api/versions/create
          * 
          * @param documentId  document ID
-         * @param versionName version name
-         * @return success message
+         * @param versionName version name, unique within the document
+         * @return success message, or 409 if the name is taken
          */
         @PostMapping("/versions/create")
         public ResponseEntity<ApiResponse<String>> createVersion(
@@ -183,9 +207,22 @@ public class VersioningController {
                                         .body(ApiResponse.error("Document not found"));
                 }
 
+                if (mementoCaretaker.findVersion(documentId, versionName).isPresent()) {
+                        return ResponseEntity
+                                        .status(HttpStatus.CONFLICT)
+                                        .body(ApiResponse.error("A version with this name already exists"));
+                }
+
                 DocumentOriginator originator = new DocumentOriginator(document);
                 DocumentMemento memento = originator.createMemento(versionName);
-                mementoCaretaker.saveMemento(documentId, memento);
+                try {
+                        mementoCaretaker.saveMemento(documentId, memento);
+                } catch (DataIntegrityViolationException e) {
+                        // Another request created the same name since the check above
+                        return ResponseEntity
+                                        .status(HttpStatus.CONFLICT)
+                                        .body(ApiResponse.error("A version with this name already exists"));
+                }
 
                 return ResponseEntity.ok(
                                 ApiResponse.success("Version created successfully", versionName));
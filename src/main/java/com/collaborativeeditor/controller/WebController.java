@@ -1,23 +1,26 @@
 package com.collaborativeeditor.controller;
 
+import com.collaborativeeditor.dto.DocumentSummaryPage;
 import com.collaborativeeditor.service.DocumentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-
-import java.util.ArrayList;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequiredArgsConstructor
 public class WebController {
 
+    private static final int PAGE_SIZE = 25;
+
     private final DocumentService documentService;
 
     @GetMapping("/")
-    public String index(Model model) {
-        model.addAttribute("documents", documentService.getAllDocuments());
+    public String index(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, false, cursor);
         return "index";
     }
 
@@ -30,8 +33,22 @@ public class WebController {
     }
 
     @GetMapping("/recycle-bin")
-    public String recycleBin(Model model) {
-        model.addAttribute("documents", documentService.getRecycleBinDocuments());
+    public String recycleBin(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, true, cursor);
         return "recycle_bin"; // Thymeleaf template
     }
+
+    private void addPage(Model model, boolean deleted, String cursor) {
+        DocumentSummaryPage page;
+        try {
+            page = documentService.listDocuments(deleted, cursor, PAGE_SIZE, Sort.Direction.DESC);
+        } catch (IllegalArgumentException e) {
+            // Stale or hand-edited link; fall back to the first page
+            cursor = null;
+            page = documentService.listDocuments(deleted, null, PAGE_SIZE, Sort.Direction.DESC);
+        }
+        model.addAttribute("documents", page.getDocuments());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+    }
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
 /**
@@ -20,7 +21,9 @@ public class AddElementRequest {
     @NotBlank(message = "Document ID is required")
     private String documentId;
 
+    @NotBlank(message = "Element type is required")
     private String elementType;
 
+    @NotNull(message = "Element data is required")
     private java.util.Map<String, Object> elementData;
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
 /**
@@ -20,8 +22,9 @@ public class ApplyStyleRequest {
     @NotBlank(message = "Document ID is required")
     private String documentId;
 
-    private int elementIndex;
+    @NotNull(message = "Element index is required")
+    private Integer elementIndex;
 
-    @NotBlank(message = "At least one style must be specified")
+    @NotEmpty(message = "At least one style must be specified")
     private List<String> styles; // e.g., ["bold", "italic", "color:red", "size:20px"]
 }
@@ -0,0 +1,25 @@
+package com.collaborativeeditor.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for deleting an element from a document.
+ * Used for POST /api/documents/delete-element endpoint.
+ *
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteElementRequest {
+
+    @NotEmpty(message = "Document ID is required")
+    private String documentId;
+
+    @NotNull(message = "Element ID is required")
+    private Long elementId;
+}
@@ -0,0 +1,41 @@
+package com.collaborativeeditor.dto;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module3.versioning.journal.DocumentChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for delta synchronization of a document.
+ * Used for GET /api/documents/{id}/changes endpoint.
+ * 
+ * Either {@code changes} holds the deltas since the requested version, or
+ * {@code fullSnapshot} is true and {@code document} holds the whole document.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentChangesResponse {
+
+    private String documentId;
+    private long sinceVersion;
+    private Long currentVersion;
+    private boolean fullSnapshot;
+    private List<DocumentChange> changes;
+    private Document document;
+
+    public static DocumentChangesResponse deltas(String documentId, long sinceVersion, Long currentVersion,
+            List<DocumentChange> changes) {
+        return new DocumentChangesResponse(documentId, sinceVersion, currentVersion, false, changes, null);
+    }
+
+    public static DocumentChangesResponse snapshot(Document document, long sinceVersion) {
+        return new DocumentChangesResponse(document.getId(), sinceVersion, document.getVersion(), true, List.of(),
+                document);
+    }
+}
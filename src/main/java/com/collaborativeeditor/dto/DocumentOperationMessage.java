@@ -0,0 +1,39 @@
+package com.collaborativeeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for an edit sent by a client over the document WebSocket.
+ * Used by the /ws/documents/{id} endpoint.
+ * 
+ * Supported operations: add-element, update-element, delete-element,
+ * move-element and apply-style. Only the fields relevant to the operation
+ * need to be set; they are validated like the matching REST request.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentOperationMessage {
+
+    /** Client-chosen identifier echoed back in the acknowledgement. */
+    private String requestId;
+
+    private String op;
+
+    private String elementType;
+
+    private Long elementId;
+
+    private Integer elementIndex;
+
+    private Map<String, Object> elementData;
+
+    private List<String> styles;
+}
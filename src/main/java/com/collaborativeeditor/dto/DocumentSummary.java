@@ -0,0 +1,25 @@
+package com.collaborativeeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing view of a document, read without loading its elements.
+ * Used for GET /api/documents, GET /api/documents/recycle-bin and the web pages.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummary {
+
+    private String id;
+    private String title;
+    private String author;
+    private LocalDateTime lastModified;
+    private int elementCount;
+}
@@ -0,0 +1,25 @@
+package com.collaborativeeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a document listing.
+ * 
+ * {@code nextCursor} is an opaque token to pass back as {@code cursor} to get
+ * the following page; it is null on the last page.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummaryPage {
+
+    private List<DocumentSummary> documents;
+    private String nextCursor;
+    private boolean hasMore;
+}
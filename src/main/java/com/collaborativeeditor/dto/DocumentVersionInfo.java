@@ -0,0 +1,18 @@
+package com.collaborativeeditor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection exposing only the change-tracking columns of a document.
+ * Used for GET /api/documents/{id}/version and GET /api/documents/versions.
+ * 
+ * @author Arch_Force Team
+ */
+public interface DocumentVersionInfo {
+
+    String getId();
+
+    Long getVersion();
+
+    LocalDateTime getLastModified();
+}
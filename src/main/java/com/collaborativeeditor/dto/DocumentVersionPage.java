@@ -0,0 +1,24 @@
+package com.collaborativeeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a document's version history, newest first.
+ * Used for GET /api/versions/list endpoint.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentVersionPage {
+
+    private List<DocumentVersionSummary> versions;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
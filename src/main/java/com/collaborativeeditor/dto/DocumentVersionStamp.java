@@ -0,0 +1,17 @@
+package com.collaborativeeditor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection exposing what retention decisions need about a saved version.
+ * 
+ * @author Arch_Force Team
+ */
+public interface DocumentVersionStamp {
+
+    Long getId();
+
+    LocalDateTime getSnapshotTime();
+
+    boolean isAutomatic();
+}
@@ -0,0 +1,26 @@
+package com.collaborativeeditor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection exposing the listing metadata of a saved version, without its snapshot.
+ * Used for GET /api/versions/list.
+ * 
+ * @author Arch_Force Team
+ */
+public interface DocumentVersionSummary {
+
+    String getVersion();
+
+    LocalDateTime getSnapshotTime();
+
+    String getTitle();
+
+    String getAuthor();
+
+    Integer getElementCount();
+
+    Long getSnapshotSize();
+
+    boolean isAutomatic();
+}
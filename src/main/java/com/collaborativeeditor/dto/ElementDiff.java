@@ -0,0 +1,34 @@
+package com.collaborativeeditor.dto;
+
+import com.collaborativeeditor.module3.versioning.diff.ElementChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Difference of one element between two versions of a document.
+ * 
+ * Indexes are positions in the respective version; {@code before} and
+ * {@code after} hold the element as serialized in each version. Only
+ * modified paragraphs, headings and code blocks carry a {@code textDiff}.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ElementDiff {
+
+    private ElementChangeType changeType;
+    private String elementType;
+    private Integer fromIndex;
+    private Integer toIndex;
+    private JsonNode before;
+    private JsonNode after;
+    private List<TextDiffSegment> textDiff;
+}
@@ -0,0 +1,30 @@
+package com.collaborativeeditor.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for moving an element to another position in a document.
+ * Used for POST /api/documents/move-element endpoint.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveElementRequest {
+
+    @NotEmpty(message = "Document ID is required")
+    private String documentId;
+
+    @NotNull(message = "Element ID is required")
+    private Long elementId;
+
+    @NotNull(message = "Target index is required")
+    @Min(value = 0, message = "Target index must not be negative")
+    private Integer toIndex;
+}
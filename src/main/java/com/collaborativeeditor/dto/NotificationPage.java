@@ -0,0 +1,26 @@
+package com.collaborativeeditor.dto;
+
+import com.collaborativeeditor.module4.collaboration.observer.CollaboratorNotification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a collaborator's notifications, newest first.
+ * Used for GET /api/collaborators/notifications endpoint.
+ * 
+ * Pass {@code nextCursor} as {@code before} to read the following page.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPage {
+
+    private List<CollaboratorNotification> notifications;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.collaborativeeditor.dto;
+
+import com.collaborativeeditor.module3.versioning.diff.TextDiffOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Run of text that is kept, inserted or deleted between two versions of an element.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextDiffSegment {
+
+    private TextDiffOperation operation;
+    private String text;
+}
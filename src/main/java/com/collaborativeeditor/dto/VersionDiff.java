@@ -0,0 +1,28 @@
+package com.collaborativeeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Element-level differences between two versions of a document.
+ * Used for GET /api/versions/diff endpoint.
+ * 
+ * @author Arch_Force Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionDiff {
+
+    private String documentId;
+    private String fromVersion;
+    private String toVersion;
+    private int added;
+    private int removed;
+    private int modified;
+    private int moved;
+    private List<ElementDiff> changes;
+}
@@ -0,0 +1,16 @@
+package com.collaborativeeditor.event;
+
+/**
+ * A collaborator was added to a document.
+ *
+ * @param documentId       document ID
+ * @param collaboratorName name of the new collaborator
+ * @author Arch_Force Team
+ */
+public record CollaboratorJoined(String documentId, String collaboratorName) implements DocumentEvent {
+
+    @Override
+    public String describe() {
+        return collaboratorName + " joined the document";
+    }
+}
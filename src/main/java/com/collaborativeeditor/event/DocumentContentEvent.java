@@ -0,0 +1,24 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+
+/**
+ * Event raised when the content of a document changed and a new document
+ * version was saved.
+ *
+ * @author Arch_Force Team
+ */
+public interface DocumentContentEvent extends DocumentEvent {
+
+    /**
+     * Gets the document as saved by the change.
+     *
+     * @return saved document
+     */
+    Document document();
+
+    @Override
+    default String documentId() {
+        return document().getId();
+    }
+}
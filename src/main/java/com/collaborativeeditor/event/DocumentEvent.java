@@ -0,0 +1,39 @@
+package com.collaborativeeditor.event;
+
+/**
+ * Domain event about a document, published through Spring's
+ * {@link org.springframework.context.ApplicationEventPublisher}.
+ *
+ * Consumers subscribe with
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, so they run
+ * once the publishing transaction has committed, or immediately when the
+ * event is published outside a transaction. Consumers that depend on each
+ * other declare the orders below. The change journal is the exception: it
+ * must commit with the change, so content events are published inside the
+ * saving transaction and journaled synchronously.
+ *
+ * @author Arch_Force Team
+ */
+public interface DocumentEvent {
+
+    /** Open editors are told about the change first. */
+    int PUSH_ORDER = 100;
+
+    /** Collaborator notifications are queued last. */
+    int NOTIFY_ORDER = 200;
+
+    /**
+     * Gets the ID of the document the event is about.
+     *
+     * @return document ID
+     */
+    String documentId();
+
+    /**
+     * Describes the event for collaborator notifications. Only reads values
+     * captured by the event, so it may be called on another thread later.
+     *
+     * @return short human-readable description
+     */
+    String describe();
+}
@@ -0,0 +1,19 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+
+/**
+ * The whole element list of a document was replaced, e.g. by undo, redo or
+ * a version restore.
+ *
+ * @param document saved document
+ * @param reason   what replaced the content
+ * @author Arch_Force Team
+ */
+public record DocumentReplaced(Document document, String reason) implements DocumentContentEvent {
+
+    @Override
+    public String describe() {
+        return reason;
+    }
+}
@@ -0,0 +1,26 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+
+/**
+ * An element was inserted into a document.
+ *
+ * @param document    saved document
+ * @param element     element as persisted
+ * @param position    index of the element in the document
+ * @param elementType type of the element
+ * @author Arch_Force Team
+ */
+public record ElementAdded(Document document, Element element, int position, String elementType)
+        implements DocumentContentEvent {
+
+    public ElementAdded(Document document, Element element, int position) {
+        this(document, element, position, element.getType());
+    }
+
+    @Override
+    public String describe() {
+        return "Element added: " + elementType;
+    }
+}
@@ -0,0 +1,20 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+
+/**
+ * An element was moved to another position.
+ *
+ * @param document saved document
+ * @param element  moved element
+ * @param position new index of the element in the document
+ * @author Arch_Force Team
+ */
+public record ElementMoved(Document document, Element element, int position) implements DocumentContentEvent {
+
+    @Override
+    public String describe() {
+        return "Element moved";
+    }
+}
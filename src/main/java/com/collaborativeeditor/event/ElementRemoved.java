@@ -0,0 +1,19 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+
+/**
+ * An element was removed from a document.
+ *
+ * @param document  saved document
+ * @param elementId ID of the removed element
+ * @param position  index the element had before removal
+ * @author Arch_Force Team
+ */
+public record ElementRemoved(Document document, Long elementId, int position) implements DocumentContentEvent {
+
+    @Override
+    public String describe() {
+        return "Element deleted";
+    }
+}
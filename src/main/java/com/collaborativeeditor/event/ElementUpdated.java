@@ -0,0 +1,20 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+
+/**
+ * The content of an element changed in place.
+ *
+ * @param document saved document
+ * @param element  element as persisted
+ * @param position index of the element in the document
+ * @author Arch_Force Team
+ */
+public record ElementUpdated(Document document, Element element, int position) implements DocumentContentEvent {
+
+    @Override
+    public String describe() {
+        return "Element updated";
+    }
+}
@@ -0,0 +1,16 @@
+package com.collaborativeeditor.event;
+
+/**
+ * A document was exported.
+ *
+ * @param documentId document ID
+ * @param format     export format
+ * @author Arch_Force Team
+ */
+public record Exported(String documentId, String format) implements DocumentEvent {
+
+    @Override
+    public String describe() {
+        return "Document exported to " + format.toUpperCase();
+    }
+}
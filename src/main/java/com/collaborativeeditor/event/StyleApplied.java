@@ -0,0 +1,30 @@
+package com.collaborativeeditor.event;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+
+import java.util.List;
+
+/**
+ * Styles were applied to an element. Styling wraps the element in
+ * decorators, so the styled element replaces the original at the same index.
+ *
+ * @param document          saved document
+ * @param replacedElementId ID of the element before styling
+ * @param element           styled element as persisted
+ * @param position          index of the element in the document
+ * @param styles            styles applied
+ * @author Arch_Force Team
+ */
+public record StyleApplied(Document document, Long replacedElementId, Element element, int position,
+        List<String> styles) implements DocumentContentEvent {
+
+    public StyleApplied {
+        styles = List.copyOf(styles);
+    }
+
+    @Override
+    public String describe() {
+        return "Styles applied: " + String.join(", ", styles);
+    }
+}
@@ -0,0 +1,17 @@
+package com.collaborativeeditor.event;
+
+/**
+ * A version of a document was saved.
+ *
+ * @param documentId document ID
+ * @param version    version name
+ * @param automatic  whether the autosave scheduler took the version
+ * @author Arch_Force Team
+ */
+public record VersionCreated(String documentId, String version, boolean automatic) implements DocumentEvent {
+
+    @Override
+    public String describe() {
+        return "Version created: " + version;
+    }
+}
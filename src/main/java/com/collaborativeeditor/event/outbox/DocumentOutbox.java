@@ -0,0 +1,74 @@
+package com.collaborativeeditor.event.outbox;
+
+import com.collaborativeeditor.repository.DocumentOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox telling the other application nodes about changes
+ * committed by this one, using only the shared database.
+ *
+ * Entries are appended in the transaction that makes the change, so they
+ * become visible exactly when the change commits and vanish if it rolls back.
+ * {@link OutboxRelay} reads them on every node.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class DocumentOutbox {
+
+    private final DocumentOutboxRepository outboxRepository;
+    private final String nodeId;
+
+    public DocumentOutbox(DocumentOutboxRepository outboxRepository,
+            @Value("${editor.cluster.node-id:}") String nodeId) {
+        this.outboxRepository = outboxRepository;
+        // A node without a configured ID gets a fresh one on every start
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        log.info("Relaying document changes as node {}", this.nodeId);
+    }
+
+    /**
+     * Gets the ID this node writes its entries under.
+     *
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Appends an entry to the outbox. Must run inside the transaction that
+     * makes the change.
+     *
+     * @param documentId      changed document
+     * @param eventType       kind of change
+     * @param documentVersion version of the document after the change, or null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String documentId, OutboxEventType eventType, Long documentVersion) {
+        outboxRepository.save(new OutboxEntry(documentId, eventType, documentVersion, nodeId));
+    }
+
+    /**
+     * Deletes a batch of entries created before a cutoff.
+     *
+     * @param cutoff    entries created before this time are deleted
+     * @param batchSize maximum number of entries to delete
+     * @return number of entries deleted
+     */
+    @Transactional
+    public int purge(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = outboxRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : outboxRepository.deleteByIdIn(ids);
+    }
+}
@@ -0,0 +1,51 @@
+package com.collaborativeeditor.event.outbox;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the document outbox: a change committed by one application node,
+ * written in the same transaction as the change itself, for the other nodes
+ * to pick up.
+ *
+ * @author Arch_Force Team
+ */
+@Entity
+@jakarta.persistence.Table(name = "document_outbox", indexes = {
+        @Index(name = "idx_document_outbox_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    /** Version of the document after the change, when the change saved one. */
+    private Long documentVersion;
+
+    /** Node that committed the change; it does not relay its own entries. */
+    @Column(nullable = false, length = 64)
+    private String originNode;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEntry(String documentId, OutboxEventType eventType, Long documentVersion, String originNode) {
+        this.documentId = documentId;
+        this.eventType = eventType;
+        this.documentVersion = documentVersion;
+        this.originNode = originNode;
+        this.createdAt = LocalDateTime.now();
+    }
+}
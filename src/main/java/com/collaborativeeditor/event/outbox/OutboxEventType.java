@@ -0,0 +1,15 @@
+package com.collaborativeeditor.event.outbox;
+
+/**
+ * Kinds of changes relayed between application nodes through the outbox.
+ *
+ * @author Arch_Force Team
+ */
+public enum OutboxEventType {
+    /** A new version of the document was saved. */
+    DOCUMENT_SAVED,
+    /** The document was permanently deleted. */
+    DOCUMENT_DELETED,
+    /** A collaborator was added to or removed from the document. */
+    COLLABORATORS_CHANGED
+}
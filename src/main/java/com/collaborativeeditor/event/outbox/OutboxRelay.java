@@ -0,0 +1,134 @@
+package com.collaborativeeditor.event.outbox;
+
+import com.collaborativeeditor.repository.DocumentOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polls the document outbox and republishes entries written by other nodes
+ * as {@link RemoteDocumentChange} events to this node's consumers. Entries of
+ * this node are skipped, its consumers already saw the change in process.
+ *
+ * Entry IDs are assigned at insert but become visible at commit, so a lower
+ * ID can appear after a higher one was read. IDs skipped over are remembered
+ * and looked up again until they show up or
+ * {@code editor.outbox.gap-timeout} passes (rolled-back inserts never do).
+ * On startup the relay begins at the newest entry: caches start empty, so
+ * older changes are irrelevant.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    /** Upper bound on remembered gaps, in case IDs jump by large steps. */
+    private static final int MAX_GAPS = 10_000;
+
+    private final DocumentOutboxRepository outboxRepository;
+    private final DocumentOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+
+    // Only touched by poll(), which the scheduler never runs concurrently with itself
+    private long lastSeenId = -1;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    public OutboxRelay(DocumentOutboxRepository outboxRepository, DocumentOutbox outbox,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${editor.outbox.batch-size:500}") int batchSize,
+            @Value("${editor.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll,
+            @Value("${editor.outbox.gap-timeout:10s}") Duration gapTimeout,
+            @Value("${editor.outbox.retention:1h}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${editor.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (lastSeenId < 0) {
+            lastSeenId = outboxRepository.findMaxId().orElse(0L);
+            return;
+        }
+        long now = System.nanoTime();
+        relayLateEntries(now);
+
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            List<OutboxEntry> entries = outboxRepository.findByIdGreaterThanOrderByIdAsc(
+                    lastSeenId, PageRequest.of(0, batchSize));
+            for (OutboxEntry entry : entries) {
+                for (long missing = lastSeenId + 1; missing < entry.getId() && gaps.size() < MAX_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                lastSeenId = entry.getId();
+                relay(entry);
+            }
+            if (entries.size() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${editor.outbox.purge.initial-delay:PT5M}",
+            fixedDelayString = "${editor.outbox.purge.interval:PT5M}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outbox.purge(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.debug("Purged {} outbox entries created before {}", total, cutoff);
+        }
+    }
+
+    private void relayLateEntries(long now) {
+        Iterator<Long> expired = gaps.values().iterator();
+        while (expired.hasNext()) {
+            if (now - expired.next() < gapTimeoutNanos) {
+                break; // gaps are kept in the order they were found
+            }
+            expired.remove();
+        }
+        if (gaps.isEmpty()) {
+            return;
+        }
+        for (OutboxEntry entry : outboxRepository.findAllById(gaps.keySet())) {
+            gaps.remove(entry.getId());
+            relay(entry);
+        }
+    }
+
+    private void relay(OutboxEntry entry) {
+        if (outbox.getNodeId().equals(entry.getOriginNode())) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new RemoteDocumentChange(
+                    entry.getDocumentId(), entry.getEventType(), entry.getDocumentVersion()));
+        } catch (RuntimeException e) {
+            log.warn("Relaying outbox entry {} for document {} failed", entry.getId(), entry.getDocumentId(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.collaborativeeditor.event.outbox;
+
+/**
+ * A change committed by another application node, relayed from the outbox to
+ * the in-process consumers of this node: caches drop what they hold for the
+ * document and push channels tell their local clients.
+ *
+ * Published outside any transaction, so consumers subscribe with a plain
+ * {@code @EventListener}. It is not a
+ * {@link com.collaborativeeditor.event.DocumentEvent}: the originating node
+ * has already journaled the change and notified collaborators.
+ *
+ * @param documentId      document ID
+ * @param eventType       kind of change
+ * @param documentVersion version of the document after the change, or null
+ * @author Arch_Force Team
+ */
+public record RemoteDocumentChange(String documentId, OutboxEventType eventType, Long documentVersion) {
+}
@@ -21,9 +21,15 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Entity
-@jakarta.persistence.Table(name = "documents")
+@jakarta.persistence.Table(name = "documents", indexes = {
+        // Keyset pagination of the document listings
+        @Index(name = "idx_documents_listing", columnList = "deleted, lastModified, id")
+})
 public class Document {
 
+    /** Spacing between the order keys of consecutive elements. */
+    public static final long ORDER_KEY_GAP = 1024;
+
     @Id
     @Column(length = 36)
     @Builder.Default
@@ -40,12 +46,15 @@ public class Document {
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "document_id")
+    @OrderBy("orderKey ASC, id ASC") // legacy rows without a key keep their insertion order
     @Builder.Default
     private List<Element> elements = new ArrayList<>();
 
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Part of the listing cursor, so never null; see V3__document_listing.sql
+    @Column(nullable = false)
     @Builder.Default
     private LocalDateTime lastModified = LocalDateTime.now();
 
@@ -66,6 +75,68 @@ public class Document {
         this.lastModified = LocalDateTime.now();
     }
 
+    /**
+     * Moves an element to another position in the document.
+     * Only the moved element gets a new order key, see {@link #assignOrderKeys()}.
+     * 
+     * @param fromIndex current index of the element
+     * @param toIndex   index the element should end up at
+     */
+    public void moveElement(int fromIndex, int toIndex) {
+        Element element = this.elements.remove(fromIndex);
+        element.setOrderKey(null);
+        this.elements.add(toIndex, element);
+        this.lastModified = LocalDateTime.now();
+    }
+
+    /**
+     * Makes the order keys of the elements follow their list order.
+     * Elements whose key is missing or out of order get a key between their
+     * neighbours; the rest keep theirs, so only rows that actually moved are
+     * updated. Everything is renumbered only when a gap is exhausted.
+     */
+    public void assignOrderKeys() {
+        long previous = 0;
+        int i = 0;
+        while (i < elements.size()) {
+            if (isOrderedAfter(elements.get(i), previous)) {
+                previous = elements.get(i).getOrderKey();
+                i++;
+                continue;
+            }
+
+            // Elements i..next-1 need keys between previous and the next ordered element
+            int next = i + 1;
+            while (next < elements.size() && !isOrderedAfter(elements.get(next), previous)) {
+                next++;
+            }
+            int count = next - i;
+            long upper = next < elements.size()
+                    ? elements.get(next).getOrderKey()
+                    : previous + (count + 1) * ORDER_KEY_GAP;
+            long step = (upper - previous) / (count + 1);
+            if (step == 0) {
+                renumberOrderKeys();
+                return;
+            }
+            for (int k = 0; k < count; k++) {
+                elements.get(i + k).setOrderKey(previous + step * (k + 1));
+            }
+            previous = elements.get(next - 1).getOrderKey();
+            i = next;
+        }
+    }
+
+    private static boolean isOrderedAfter(Element element, long previous) {
+        return element.getOrderKey() != null && element.getOrderKey() > previous;
+    }
+
+    private void renumberOrderKeys() {
+        for (int i = 0; i < elements.size(); i++) {
+            elements.get(i).setOrderKey((i + 1) * ORDER_KEY_GAP);
+        }
+    }
+
     // View logic (renderAsHtml) has been removed to separate concerns.
     // Use a DocumentRenderer service or DTO mapper instead.
 }
@@ -1,9 +1,16 @@
 package com.collaborativeeditor.module1.creation.model;
 
+import com.collaborativeeditor.module2.structure.decorator.BoldDecorator;
+import com.collaborativeeditor.module2.structure.decorator.ColorDecorator;
+import com.collaborativeeditor.module2.structure.decorator.ItalicDecorator;
+import com.collaborativeeditor.module2.structure.decorator.SizeDecorator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import lombok.Data;
 
 /**
@@ -19,19 +26,37 @@ import lombok.Data;
         @JsonSubTypes.Type(value = Table.class, name = "table"),
         @JsonSubTypes.Type(value = ListElement.class, name = "list"),
         @JsonSubTypes.Type(value = Heading.class, name = "heading"),
-        @JsonSubTypes.Type(value = CodeBlock.class, name = "code")
+        @JsonSubTypes.Type(value = CodeBlock.class, name = "code"),
+        // Decorators keep the class names they were always written with
+        @JsonSubTypes.Type(value = BoldDecorator.class, name = "BoldDecorator"),
+        @JsonSubTypes.Type(value = ItalicDecorator.class, name = "ItalicDecorator"),
+        @JsonSubTypes.Type(value = ColorDecorator.class, name = "ColorDecorator"),
+        @JsonSubTypes.Type(value = SizeDecorator.class, name = "SizeDecorator")
 })
 @Entity
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "element_type")
 @jakarta.persistence.Table(name = "elements")
+@BatchSize(size = 100) // decorators load their wrapped elements in batches, not one by one
 @Data
 public abstract class Element {
 
+    // Ids come from a pooled sequence so Hibernate can batch element inserts;
+    // IDENTITY would force one round trip per row to read the generated key.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "element_seq")
+    @SequenceGenerator(name = "element_seq", sequenceName = "element_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Position of the element within its document. Keys are spaced
+     * {@link Document#ORDER_KEY_GAP} apart so a move only rewrites the moved row.
+     * Null on rows written before ordering was introduced.
+     */
+    @JsonIgnore
+    @Column(name = "order_key")
+    private Long orderKey;
+
     /**
      * Gets the type of this element.
      * 
@@ -52,4 +77,12 @@ public abstract class Element {
      * @return rendered element
      */
     public abstract String render();
+
+    /**
+     * Clears the ID of this element so it is persisted as a new row,
+     * e.g. when a snapshot is restored into a document.
+     */
+    public void clearIds() {
+        this.id = null;
+    }
 }
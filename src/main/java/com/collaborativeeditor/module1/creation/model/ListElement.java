@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.List;
 
 /**
@@ -24,6 +26,7 @@ import java.util.List;
 public class ListElement extends Element {
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "list_items", joinColumns = @JoinColumn(name = "list_id"))
     @Column(name = "item")
     private List<String> items;
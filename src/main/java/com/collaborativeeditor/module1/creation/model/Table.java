@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -25,12 +27,14 @@ import java.util.stream.Collectors;
 public class Table extends Element {
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "table_headers", joinColumns = @JoinColumn(name = "table_id"))
     @Column(name = "header")
     private List<String> headers;
 
     // Simplifying: Storing rows as JSON-like strings for finding MVP solution
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "table_rows", joinColumns = @JoinColumn(name = "table_id"))
     @Column(name = "row_data")
     private List<String> rows;
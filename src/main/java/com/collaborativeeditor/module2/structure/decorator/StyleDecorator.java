@@ -36,6 +36,14 @@ public abstract class StyleDecorator extends Element {
         return wrappedElement != null ? wrappedElement.getContent() : "";
     }
 
+    @Override
+    public void clearIds() {
+        super.clearIds();
+        if (wrappedElement != null) {
+            wrappedElement.clearIds();
+        }
+    }
+
     /**
      * Gets the style tag name for this decorator.
      * 
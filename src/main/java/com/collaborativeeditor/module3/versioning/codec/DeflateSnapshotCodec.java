@@ -0,0 +1,89 @@
+package com.collaborativeeditor.module3.versioning.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec compressing payloads with the JDK's DEFLATE implementation.
+ * 
+ * @author Arch_Force Team
+ */
+@Component
+public class DeflateSnapshotCodec implements SnapshotCodec {
+
+    public static final byte ID = 1;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        return deflate(data, null);
+    }
+
+    @Override
+    public byte[] decode(byte[] data) {
+        return inflate(data, null);
+    }
+
+    /**
+     * Compresses data, optionally primed with a preset dictionary.
+     */
+    static byte[] deflate(byte[] data, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses data, supplying the preset dictionary when the stream asks for one.
+     */
+    static byte[] inflate(byte[] data, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && !inflater.finished()) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new IllegalStateException("Truncated or corrupted snapshot payload");
+                    }
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted snapshot payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.collaborativeeditor.module3.versioning.codec;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Codec that stores payloads as they are.
+ * Used when compression would not make a payload smaller.
+ * 
+ * @author Arch_Force Team
+ */
+@Component
+public class IdentitySnapshotCodec implements SnapshotCodec {
+
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "none";
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        return data;
+    }
+
+    @Override
+    public byte[] decode(byte[] data) {
+        return data;
+    }
+}
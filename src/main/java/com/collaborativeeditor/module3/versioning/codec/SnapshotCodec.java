@@ -0,0 +1,41 @@
+package com.collaborativeeditor.module3.versioning.codec;
+
+/**
+ * Strategy interface for encoding stored snapshot payloads.
+ * Each codec is identified by the header byte written in front of the
+ * payloads it produced, so rows written with different codecs can coexist.
+ * 
+ * @author Arch_Force Team
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Gets the header byte identifying this codec. Must never change once rows use it.
+     * 
+     * @return codec ID
+     */
+    byte getId();
+
+    /**
+     * Gets the name used to select this codec in configuration.
+     * 
+     * @return codec name
+     */
+    String getName();
+
+    /**
+     * Encodes a payload.
+     * 
+     * @param data raw bytes
+     * @return encoded bytes
+     */
+    byte[] encode(byte[] data);
+
+    /**
+     * Decodes a payload produced by {@link #encode(byte[])}.
+     * 
+     * @param data encoded bytes
+     * @return raw bytes
+     */
+    byte[] decode(byte[] data);
+}
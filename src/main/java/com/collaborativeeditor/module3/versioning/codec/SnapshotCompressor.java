@@ -0,0 +1,83 @@
+package com.collaborativeeditor.module3.versioning.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Context class choosing the {@link SnapshotCodec} for stored payloads.
+ * 
+ * New payloads are written with the configured codec, falling back to
+ * {@link IdentitySnapshotCodec} when compression does not pay off. Every
+ * payload starts with the ID of the codec that wrote it, so reading never
+ * depends on the current configuration.
+ * 
+ * @author Arch_Force Team
+ */
+@Component
+public class SnapshotCompressor {
+
+    private final Map<Byte, SnapshotCodec> codecsById = new HashMap<>();
+    private final SnapshotCodec defaultCodec;
+
+    public SnapshotCompressor(List<SnapshotCodec> codecs,
+            @Value("${editor.versions.codec:deflate-dict}") String codecName) {
+        SnapshotCodec selected = null;
+        for (SnapshotCodec codec : codecs) {
+            if (codecsById.put(codec.getId(), codec) != null) {
+                throw new IllegalStateException("Duplicate snapshot codec ID " + codec.getId());
+            }
+            if (codec.getName().equalsIgnoreCase(codecName)) {
+                selected = codec;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalArgumentException("Unknown snapshot codec: " + codecName);
+        }
+        this.defaultCodec = selected;
+    }
+
+    /**
+     * Encodes a JSON payload with the configured codec.
+     * 
+     * @param json payload
+     * @return header byte followed by the encoded payload
+     */
+    public byte[] compress(String json) {
+        byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+        SnapshotCodec codec = defaultCodec;
+        byte[] body = codec.encode(raw);
+        if (body.length >= raw.length) {
+            codec = codecsById.get(IdentitySnapshotCodec.ID);
+            body = raw;
+        }
+
+        byte[] payload = new byte[body.length + 1];
+        payload[0] = codec.getId();
+        System.arraycopy(body, 0, payload, 1, body.length);
+        return payload;
+    }
+
+    /**
+     * Decodes a payload written by {@link #compress(String)}.
+     * 
+     * @param payload header byte followed by the encoded payload
+     * @return JSON payload
+     */
+    public String decompress(byte[] payload) {
+        if (payload.length == 0) {
+            throw new IllegalStateException("Empty snapshot payload");
+        }
+        SnapshotCodec codec = codecsById.get(payload[0]);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown snapshot codec ID " + payload[0]);
+        }
+        byte[] raw = codec.decode(Arrays.copyOfRange(payload, 1, payload.length));
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -15,23 +15,36 @@ public class AddElementCommand implements Command {
 
     private final Document document;
     private final Element element;
+    private int position;
     private final String description;
 
     public AddElementCommand(Document document, Element element) {
+        this(document, element, document.getElements().size());
+    }
+
+    public AddElementCommand(Document document, Element element, int position) {
         this.document = document;
         this.element = element;
+        this.position = position;
         this.description = "Add " + element.getType() + " element";
     }
 
     @Override
     public void execute() {
-        document.addElement(element);
+        position = Math.max(0, Math.min(position, document.getElements().size()));
+        document.getElements().add(position, element);
+        document.setLastModified(java.time.LocalDateTime.now());
     }
 
     @Override
     public void undo() {
-        if (!document.getElements().isEmpty()) {
-            document.getElements().remove(document.getElements().size() - 1);
+        if (document.getElements().remove(element)) {
+            document.setLastModified(java.time.LocalDateTime.now());
         }
     }
+
+    @Override
+    public OperationType getOperationType() {
+        return OperationType.ADD_ELEMENT;
+    }
 }
@@ -1,5 +1,7 @@
 package com.collaborativeeditor.module3.versioning.command;
 
+import com.collaborativeeditor.module1.creation.model.Element;
+
 /**
  * Command interface for implementing the Command pattern.
  * Encapsulates document operations as objects, enabling undo/redo
@@ -28,4 +30,26 @@ public interface Command {
      * @return command description
      */
     String getDescription();
+
+    /**
+     * Gets the kind of this command, used to rebuild it from the operation log.
+     * 
+     * @return operation type
+     */
+    OperationType getOperationType();
+
+    /**
+     * Gets the index of the element this command inserts, removes or
+     * replaces, or the index it moves the element to.
+     * 
+     * @return element index
+     */
+    int getPosition();
+
+    /**
+     * Gets the element this command inserts, removed, replaced with or moved.
+     * 
+     * @return element, or null if the command had no effect
+     */
+    Element getElement();
 }
@@ -1,151 +1,359 @@
 package com.collaborativeeditor.module3.versioning.command;
 
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import com.collaborativeeditor.repository.DocumentOperationRepository;
+import com.collaborativeeditor.service.DocumentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Invoker in the Command pattern.
- * Manages command history and executes undo/redo operations.
+ * Executes commands and undoes/redoes them through a persisted per-document
+ * operation log, so history survives restarts and is shared by all instances.
+ * 
+ * Undo reverts the newest applied entry and redo reapplies the oldest undone
+ * one; commands are rebuilt from the log against the document being edited.
+ * Every history change saves the document, so its optimistic-lock version
+ * tells whether a cached tail of the log is still current. The cache only
+ * keeps operation descriptions, is budgeted in operations and drops
+ * histories of documents left idle.
  * 
  * @author Arch_Force Team
  */
 @Component
 public class CommandInvoker {
 
-    // Use ConcurrentHashMap for thread safety in a singleton bean context
-    private final java.util.Map<String, java.util.Deque<Command>> undoStacks = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Map<String, java.util.Deque<Command>> redoStacks = new java.util.concurrent.ConcurrentHashMap<>();
+    /** Number of operations kept per document. */
+    public static final int MAX_HISTORY_SIZE = 50;
 
-    private static final int MAX_HISTORY_SIZE = 50;
+    private final DocumentOperationRepository operationRepository;
+    private final DocumentService documentService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+    private final Cache<String, Tail> tails;
+
+    public CommandInvoker(DocumentOperationRepository operationRepository, DocumentService documentService,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${editor.history.cache.max-operations:50000}") long maxCachedOperations,
+            @Value("${editor.history.cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.operationRepository = operationRepository;
+        this.documentService = documentService;
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        // Budgeted in operations rather than documents, so long histories weigh more; idle ones expire
+        this.tails = Caffeine.newBuilder()
+                .maximumWeight(maxCachedOperations)
+                .weigher((String documentId, Tail tail) -> Math.max(1, tail.operations().size()))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tails, "command-history");
+        Gauge.builder("editor.history.cached.documents", tails, Cache::estimatedSize)
+                .description("Documents whose undo/redo history tail is cached")
+                .register(meterRegistry);
+        Gauge.builder("editor.history.cached.operations", this, CommandInvoker::cachedOperations)
+                .description("Operations held by cached undo/redo history tails")
+                .register(meterRegistry);
+    }
 
     /**
-     * Executes a command and adds it to the undo stack for the specific document.
+     * Executes a command on a document, saves the document and appends the
+     * command to its operation log. Undone operations can no longer be redone.
      * 
-     * @param documentId the document context
-     * @param command    command to execute
+     * @param document document to modify
+     * @param command  command to execute
      */
-    public void executeCommand(String documentId, Command command) {
+    @Transactional
+    public void executeCommand(Document document, Command command) {
+        Element replaced = command.getOperationType() == OperationType.REPLACE_ELEMENT
+                || command.getOperationType() == OperationType.UPDATE_ELEMENT
+                ? elementAt(document, command.getPosition())
+                : null;
+        // Serialized up front, as updates change the element in place
+        String previousJson = replaced != null ? toJson(replaced) : null;
+        Long replacedId = replaced != null ? replaced.getId() : null;
+
         command.execute();
-        java.util.Deque<Command> undoStack = undoStacks.computeIfAbsent(documentId, k -> new java.util.ArrayDeque<>());
+        if (command.getElement() == null) {
+            return; // nothing changed, nothing to undo
+        }
+        documentService.saveDocument(document);
 
-        synchronized (undoStack) {
-            undoStack.push(command);
+        String documentId = document.getId();
+        Element element = command.getOperationType() == OperationType.REMOVE_ELEMENT
+                ? command.getElement()
+                // Saving merges new elements into the managed list; log the persisted copy
+                : document.getElements().get(command.getPosition());
 
-            // Prevent memory leaks by limiting history size
-            if (undoStack.size() > MAX_HISTORY_SIZE) {
-                undoStack.removeLast();
-            }
+        operationRepository.deleteUndone(documentId);
+        if (replacedId != null && !replacedId.equals(element.getId())) {
+            // Earlier operations on the replaced element now apply to its replacement
+            operationRepository.renameElement(documentId, replacedId, element.getId());
         }
-
-        // Clear redo stack when new command is executed.
-        // We must use computeIfAbsent to ensure we lock the authoritative stack
-        // instance
-        // to prevent race conditions with concurrent undo/redo operations.
-        java.util.Deque<Command> redoStack = redoStacks.computeIfAbsent(documentId, k -> new java.util.ArrayDeque<>());
-        synchronized (redoStack) {
-            redoStack.clear();
+        DocumentOperation operation = new DocumentOperation(documentId, command.getOperationType(), element.getId(),
+                command.getPosition(),
+                command.getOperationType() == OperationType.MOVE_ELEMENT ? null : toJson(element),
+                command.getDescription());
+        operation.setPreviousJson(previousJson);
+        if (command instanceof MoveElementCommand move) {
+            operation.setPreviousPosition(move.getFromIndex());
         }
+        operationRepository.save(operation);
+
+        // Keep only the newest MAX_HISTORY_SIZE entries
+        operationRepository.findByDocumentIdOrderByIdDesc(documentId, PageRequest.of(MAX_HISTORY_SIZE, 1))
+                .stream().findFirst()
+                .ifPresent(oldest -> operationRepository.deleteUpTo(documentId, oldest.getId()));
+        tails.invalidate(documentId);
     }
 
     /**
-     * Undoes the last executed command for a specific document.
+     * Undoes the last applied operation on a document and saves it.
+     * Operations whose element has since been deleted by other means can no
+     * longer be undone; they are dropped from the log and the one before is
+     * undone instead.
      * 
-     * @param documentId document ID
-     * @return true if undo was successful, false if nothing to undo
+     * @param document document loaded for update
+     * @return the command that reverted the operation, or null if there was
+     *         nothing to undo
      */
-    public boolean undo(String documentId) {
-        java.util.Deque<Command> undoStack = undoStacks.get(documentId);
-        if (undoStack == null) {
-            return false;
+    @Transactional
+    public Command undo(Document document) {
+        DocumentOperation operation;
+        while ((operation = operationRepository
+                .findFirstByDocumentIdAndUndoneFalseOrderByIdDesc(document.getId()).orElse(null)) != null) {
+            Command command = revert(document, operation);
+            if (command != null) {
+                finish(document, operation, command, true);
+                return command;
+            }
+            operationRepository.delete(operation);
         }
+        tails.invalidate(document.getId());
+        return null;
+    }
 
-        Command command;
-        synchronized (undoStack) {
-            if (undoStack.isEmpty()) {
-                return false;
+    /**
+     * Redoes the last undone operation on a document and saves it.
+     * Operations whose element has since been deleted by other means are
+     * dropped from the log, like on undo.
+     * 
+     * @param document document loaded for update
+     * @return the command that reapplied the operation, or null if there was
+     *         nothing to redo
+     */
+    @Transactional
+    public Command redo(Document document) {
+        DocumentOperation operation;
+        while ((operation = operationRepository
+                .findFirstByDocumentIdAndUndoneTrueOrderByIdAsc(document.getId()).orElse(null)) != null) {
+            Command command = reapply(document, operation);
+            if (command != null) {
+                finish(document, operation, command, false);
+                return command;
             }
-            command = undoStack.pop();
+            operationRepository.delete(operation);
         }
+        tails.invalidate(document.getId());
+        return null;
+    }
 
-        // Execute undo outside the lock to prevent deadlocks
-        command.undo();
+    /**
+     * Gets the description of the last command that can be undone.
+     * 
+     * @param document current document
+     * @return command description or null if nothing to undo
+     */
+    public String getUndoDescription(Document document) {
+        return tail(document).operations().stream()
+                .filter(operation -> !operation.undone())
+                .findFirst()
+                .map(CachedOperation::description)
+                .orElse(null);
+    }
 
-        java.util.Deque<Command> redoStack = redoStacks.computeIfAbsent(documentId, k -> new java.util.ArrayDeque<>());
-        synchronized (redoStack) {
-            redoStack.push(command);
+    /**
+     * Gets the description of the last command that can be redone.
+     * 
+     * @param document current document
+     * @return command description or null if nothing to redo
+     */
+    public String getRedoDescription(Document document) {
+        String description = null;
+        for (CachedOperation operation : tail(document).operations()) {
+            if (!operation.undone()) {
+                break;
+            }
+            description = operation.description(); // newest first; keep the oldest undone
         }
-        return true;
+        return description;
     }
 
     /**
-     * Redoes the last undone command for a specific document.
+     * Clears command history for a specific document.
      * 
      * @param documentId document ID
-     * @return true if redo was successful, false if nothing to redo
      */
-    public boolean redo(String documentId) {
-        java.util.Deque<Command> redoStack = redoStacks.get(documentId);
-        if (redoStack == null) {
-            return false;
+    @Transactional
+    public void clear(String documentId) {
+        operationRepository.deleteByDocumentId(documentId);
+        tails.invalidate(documentId);
+    }
+
+    /**
+     * Rebuilds the command of a logged operation and reverts it.
+     * 
+     * @return the applied command, or null if the element it changed is gone
+     */
+    private Command revert(Document document, DocumentOperation operation) {
+        if (operation.getOperationType() == OperationType.REMOVE_ELEMENT) {
+            Command command = new RemoveElementCommand(document, operation.getPosition(),
+                    fromJson(operation, operation.getElementJson()));
+            command.undo();
+            return command;
+        }
+
+        int index = indexOf(document, operation.getElementId());
+        if (index < 0) {
+            return null;
+        }
+        Command command = switch (operation.getOperationType()) {
+            case ADD_ELEMENT -> new AddElementCommand(document, document.getElements().get(index), index);
+            case REPLACE_ELEMENT -> new ReplaceElementCommand(document, index,
+                    fromJson(operation, operation.getPreviousJson()), operation.getDescription());
+            case UPDATE_ELEMENT -> new UpdateElementCommand(document, index,
+                    fromJson(operation, operation.getPreviousJson()), operation.getDescription());
+            case MOVE_ELEMENT -> new MoveElementCommand(document, index, operation.getPreviousPosition());
+            default -> throw new IllegalStateException("Unknown operation type " + operation.getOperationType());
+        };
+        if (operation.getOperationType() == OperationType.ADD_ELEMENT) {
+            command.undo();
+        } else {
+            command.execute(); // replacing, updating or moving back is itself a replacement, update or move
         }
+        return command;
+    }
 
+    /**
+     * Rebuilds the command of a logged operation and executes it again.
+     * 
+     * @return the applied command, or null if the element it changed is gone
+     */
+    private Command reapply(Document document, DocumentOperation operation) {
         Command command;
-        synchronized (redoStack) {
-            if (redoStack.isEmpty()) {
-                return false;
+        if (operation.getOperationType() == OperationType.ADD_ELEMENT) {
+            command = new AddElementCommand(document, fromJson(operation, operation.getElementJson()),
+                    operation.getPosition());
+        } else {
+            int index = indexOf(document, operation.getElementId());
+            if (index < 0) {
+                return null;
             }
-            command = redoStack.pop();
+            command = switch (operation.getOperationType()) {
+                case REMOVE_ELEMENT -> new RemoveElementCommand(document, index);
+                case REPLACE_ELEMENT -> new ReplaceElementCommand(document, index,
+                        fromJson(operation, operation.getElementJson()), operation.getDescription());
+                case UPDATE_ELEMENT -> new UpdateElementCommand(document, index,
+                        fromJson(operation, operation.getElementJson()), operation.getDescription());
+                case MOVE_ELEMENT -> new MoveElementCommand(document, index, operation.getPosition());
+                default -> throw new IllegalStateException("Unknown operation type " + operation.getOperationType());
+            };
         }
-
-        // Execute redo outside the lock
         command.execute();
+        return command;
+    }
 
-        java.util.Deque<Command> undoStack = undoStacks.computeIfAbsent(documentId, k -> new java.util.ArrayDeque<>());
-        synchronized (undoStack) {
-            undoStack.push(command);
+    private void finish(Document document, DocumentOperation operation, Command command, boolean undone) {
+        documentService.saveDocument(document);
+        Long elementId = operation.getElementId();
+        boolean removed = operation.getOperationType()
+                == (undone ? OperationType.ADD_ELEMENT : OperationType.REMOVE_ELEMENT);
+        Long currentId = removed ? elementId : document.getElements().get(command.getPosition()).getId();
+
+        operation.setUndone(undone);
+        operation.setElementId(currentId);
+        operationRepository.save(operation);
+        if (!currentId.equals(elementId)) {
+            // Reinserted and replaced elements get a new row; later undo/redo must find that one
+            operationRepository.renameElement(document.getId(), elementId, currentId);
         }
-        return true;
+        tails.invalidate(document.getId());
     }
 
-    /**
-     * Gets the description of the last command that can be undone.
-     * 
-     * @param documentId document ID
-     * @return command description or null if nothing to undo
-     */
-    public String getUndoDescription(String documentId) {
-        java.util.Deque<Command> undoStack = undoStacks.get(documentId);
-        if (undoStack == null)
-            return null;
+    private Tail tail(Document document) {
+        Tail tail = tails.getIfPresent(document.getId());
+        if (tail == null || !Objects.equals(tail.documentVersion(), document.getVersion())) {
+            // Only descriptions are cached; element JSON stays in the database
+            List<CachedOperation> operations = operationRepository.findByDocumentIdOrderByIdDesc(
+                    document.getId(), PageRequest.of(0, MAX_HISTORY_SIZE)).stream()
+                    .map(operation -> new CachedOperation(operation.getDescription(), operation.isUndone()))
+                    .toList();
+            tail = new Tail(document.getVersion(), operations);
+            tails.put(document.getId(), tail);
+        }
+        return tail;
+    }
+
+    private double cachedOperations() {
+        return tails.asMap().values().stream().mapToInt(tail -> tail.operations().size()).sum();
+    }
 
-        synchronized (undoStack) {
-            return undoStack.isEmpty() ? null : undoStack.peek().getDescription();
+    private static int indexOf(Document document, Long elementId) {
+        List<Element> elements = document.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (elementId != null && elementId.equals(elements.get(i).getId())) {
+                return i;
+            }
         }
+        return -1;
     }
 
-    /**
-     * Gets the description of the last command that can be redone.
-     * 
-     * @param documentId document ID
-     * @return command description or null if nothing to redo
-     */
-    public String getRedoDescription(String documentId) {
-        java.util.Deque<Command> redoStack = redoStacks.get(documentId);
-        if (redoStack == null)
-            return null;
+    private static Element elementAt(Document document, int position) {
+        return position >= 0 && position < document.getElements().size()
+                ? document.getElements().get(position)
+                : null;
+    }
 
-        synchronized (redoStack) {
-            return redoStack.isEmpty() ? null : redoStack.peek().getDescription();
+    private Element fromJson(DocumentOperation operation, String json) {
+        try {
+            Element element = objectMapper.readValue(json, Element.class);
+            element.clearIds();
+            return element;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted operation log entry " + operation.getId(), e);
+        }
+    }
+
+    private String toJson(Element element) {
+        try {
+            return compactWriter.writeValueAsString(element);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize element for the operation log", e);
         }
     }
 
     /**
-     * Clears command history for a specific document.
-     * Removes the history entries entirely to prevent memory leaks.
-     * 
-     * @param documentId document ID
+     * Newest operations of a document, newest first, as of a document version.
      */
-    public void clear(String documentId) {
-        undoStacks.remove(documentId);
-        redoStacks.remove(documentId);
+    private record Tail(Long documentVersion, List<CachedOperation> operations) {
+    }
+
+    private record CachedOperation(String description, boolean undone) {
     }
 }
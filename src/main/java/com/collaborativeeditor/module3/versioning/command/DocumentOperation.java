@@ -0,0 +1,72 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the per-document operation log backing undo and redo.
+ * Holds enough to rebuild the command that produced it: the element it
+ * inserted, removed or replaced and where, plus the replaced element or the
+ * original position for replacements and moves.
+ * 
+ * Entries are appended in execution order; undoing or redoing one only flips
+ * {@code undone}. Executing a new command discards the undone entries, and
+ * only the newest {@link CommandInvoker#MAX_HISTORY_SIZE} entries are kept.
+ * 
+ * @author Arch_Force Team
+ */
+@Entity
+@jakarta.persistence.Table(name = "document_operations", indexes = {
+        @Index(name = "idx_document_operations_doc", columnList = "documentId, id")
+})
+@Data
+@NoArgsConstructor
+public class DocumentOperation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OperationType operationType;
+
+    /** Current ID of the element; reinserting or replacing it gives it a new one. */
+    private Long elementId;
+
+    /** Index of the element when it was inserted, removed or replaced, or the index it was moved to. */
+    private int position;
+
+    /** Index a moved element was moved from. */
+    private Integer previousPosition;
+
+    /** The inserted, removed or replacing element, serialized as JSON. */
+    @Column(columnDefinition = "TEXT")
+    private String elementJson;
+
+    /** The replaced element, or the updated element as it was before, serialized as JSON. */
+    @Column(columnDefinition = "TEXT")
+    private String previousJson;
+
+    private String description;
+
+    private boolean undone;
+
+    private LocalDateTime createdAt;
+
+    public DocumentOperation(String documentId, OperationType operationType, Long elementId, int position,
+            String elementJson, String description) {
+        this.documentId = documentId;
+        this.operationType = operationType;
+        this.elementId = elementId;
+        this.position = position;
+        this.elementJson = elementJson;
+        this.description = description;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import lombok.Getter;
+
+/**
+ * Concrete command for moving an element to another position.
+ * Implements the Command pattern.
+ * 
+ * @author Arch_Force Team
+ */
+@Getter
+public class MoveElementCommand implements Command {
+
+    private final Document document;
+    private final int fromIndex;
+    private int toIndex;
+    private Element movedElement;
+    private final String description;
+
+    public MoveElementCommand(Document document, int fromIndex, int toIndex) {
+        this.document = document;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.description = "Move element from index " + fromIndex + " to " + toIndex;
+    }
+
+    @Override
+    public void execute() {
+        int size = document.getElements().size();
+        if (fromIndex >= 0 && fromIndex < size) {
+            toIndex = Math.max(0, Math.min(toIndex, size - 1));
+            document.moveElement(fromIndex, toIndex);
+            movedElement = document.getElements().get(toIndex);
+        }
+    }
+
+    @Override
+    public void undo() {
+        if (movedElement != null) {
+            document.moveElement(toIndex, fromIndex);
+        }
+    }
+
+    @Override
+    public OperationType getOperationType() {
+        return OperationType.MOVE_ELEMENT;
+    }
+
+    @Override
+    public int getPosition() {
+        return toIndex;
+    }
+
+    @Override
+    public Element getElement() {
+        return movedElement;
+    }
+}
@@ -0,0 +1,16 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+/**
+ * Kinds of commands recorded in the operation log.
+ * 
+ * @author Arch_Force Team
+ */
+public enum OperationType {
+    ADD_ELEMENT,
+    REMOVE_ELEMENT,
+    /** The element at a position is replaced by another one, with a new ID. */
+    REPLACE_ELEMENT,
+    MOVE_ELEMENT,
+    /** The data of an element is changed in place; it keeps its ID. */
+    UPDATE_ELEMENT
+}
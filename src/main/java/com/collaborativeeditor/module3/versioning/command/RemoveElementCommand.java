@@ -14,7 +14,7 @@ import lombok.Getter;
 public class RemoveElementCommand implements Command {
 
     private final Document document;
-    private final int index;
+    private int index;
     private Element removedElement;
     private final String description;
 
@@ -24,17 +24,47 @@ public class RemoveElementCommand implements Command {
         this.description = "Remove element at index " + index;
     }
 
+    /**
+     * Rebuilds an executed removal, e.g. from the operation log, so it can be undone.
+     * 
+     * @param document       document the element was removed from
+     * @param index          index the element had
+     * @param removedElement removed element
+     */
+    public RemoveElementCommand(Document document, int index, Element removedElement) {
+        this(document, index);
+        this.removedElement = removedElement;
+    }
+
     @Override
     public void execute() {
         if (index >= 0 && index < document.getElements().size()) {
             removedElement = document.getElements().remove(index);
+            document.setLastModified(java.time.LocalDateTime.now());
         }
     }
 
     @Override
     public void undo() {
-        if (removedElement != null && index >= 0 && index <= document.getElements().size()) {
+        if (removedElement != null && index >= 0) {
+            index = Math.min(index, document.getElements().size());
             document.getElements().add(index, removedElement);
+            document.setLastModified(java.time.LocalDateTime.now());
         }
     }
+
+    @Override
+    public OperationType getOperationType() {
+        return OperationType.REMOVE_ELEMENT;
+    }
+
+    @Override
+    public int getPosition() {
+        return index;
+    }
+
+    @Override
+    public Element getElement() {
+        return removedElement;
+    }
 }
@@ -0,0 +1,55 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import lombok.Getter;
+
+/**
+ * Concrete command for replacing the element at a position, e.g. with a
+ * styled version of itself.
+ * Implements the Command pattern.
+ * 
+ * @author Arch_Force Team
+ */
+@Getter
+public class ReplaceElementCommand implements Command {
+
+    private final Document document;
+    private final int position;
+    private final Element replacement;
+    private Element replacedElement;
+    private final String description;
+
+    public ReplaceElementCommand(Document document, int position, Element replacement, String description) {
+        this.document = document;
+        this.position = position;
+        this.replacement = replacement;
+        this.description = description;
+    }
+
+    @Override
+    public void execute() {
+        if (position >= 0 && position < document.getElements().size()) {
+            replacedElement = document.getElements().set(position, replacement);
+            document.setLastModified(java.time.LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public void undo() {
+        if (replacedElement != null) {
+            document.getElements().set(position, replacedElement);
+            document.setLastModified(java.time.LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public OperationType getOperationType() {
+        return OperationType.REPLACE_ELEMENT;
+    }
+
+    @Override
+    public Element getElement() {
+        return replacedElement != null ? replacement : null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+import com.collaborativeeditor.module1.creation.model.*;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concrete command for changing the data of an element in place.
+ * Implements the Command pattern.
+ * 
+ * The element keeps its row and ID. Undo and redo rebuild the command from
+ * the element states in the operation log, copying one onto the element.
+ * 
+ * @author Arch_Force Team
+ */
+@Getter
+public class UpdateElementCommand implements Command {
+
+    private final Document document;
+    private final int position;
+    private final Map<String, Object> data;
+    private Element updatedElement;
+    private Map<String, Object> previousData;
+    private final String description;
+
+    public UpdateElementCommand(Document document, int position, Map<String, Object> data) {
+        this.document = document;
+        this.position = position;
+        this.data = data;
+        this.description = "Update element at index " + position;
+    }
+
+    /**
+     * Creates a command that copies the data of another element, such as an
+     * earlier state of the same element, onto the element at a position.
+     * 
+     * @param document    document to modify
+     * @param position    index of the element to change
+     * @param source      element whose data is copied
+     * @param description description of the command
+     */
+    public UpdateElementCommand(Document document, int position, Element source, String description) {
+        this.document = document;
+        this.position = position;
+        this.data = readData(source);
+        this.description = description;
+    }
+
+    @Override
+    public void execute() {
+        if (position >= 0 && position < document.getElements().size()) {
+            updatedElement = document.getElements().get(position);
+            previousData = readData(updatedElement);
+            writeData(updatedElement, data);
+            document.setLastModified(java.time.LocalDateTime.now()); // Force version increment
+        }
+    }
+
+    @Override
+    public void undo() {
+        if (updatedElement != null) {
+            writeData(updatedElement, previousData);
+            document.setLastModified(java.time.LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public OperationType getOperationType() {
+        return OperationType.UPDATE_ELEMENT;
+    }
+
+    @Override
+    public Element getElement() {
+        return updatedElement;
+    }
+
+    private static Map<String, Object> readData(Element element) {
+        Map<String, Object> values = new HashMap<>();
+        if (element instanceof Paragraph paragraph) {
+            values.put("content", paragraph.getContent());
+        } else if (element instanceof Heading heading) {
+            values.put("content", heading.getContent());
+            values.put("level", heading.getLevel());
+        } else if (element instanceof Image image) {
+            values.put("url", image.getUrl());
+            values.put("altText", image.getAltText());
+        } else if (element instanceof ListElement list) {
+            values.put("items", list.getItems() != null ? new ArrayList<>(list.getItems()) : null);
+            values.put("ordered", list.isOrdered());
+        } else if (element instanceof CodeBlock code) {
+            values.put("content", code.getContent());
+            values.put("language", code.getLanguage());
+        }
+        return values;
+    }
+
+    private static void writeData(Element element, Map<String, Object> data) {
+        if (element instanceof Paragraph paragraph && data.containsKey("content")) {
+            paragraph.setContent((String) data.get("content"));
+        } else if (element instanceof Heading heading) {
+            if (data.containsKey("content"))
+                heading.setContent((String) data.get("content"));
+            if (data.containsKey("level"))
+                heading.setLevel(data.get("level") instanceof Integer ? (Integer) data.get("level")
+                        : Integer.parseInt(data.get("level").toString()));
+        } else if (element instanceof Image image) {
+            if (data.containsKey("url"))
+                image.setUrl((String) data.get("url"));
+            if (data.containsKey("altText"))
+                image.setAltText((String) data.get("altText"));
+        } else if (element instanceof ListElement list) {
+            if (data.containsKey("items")) {
+                @SuppressWarnings("unchecked")
+                List<String> items = (List<String>) data.get("items");
+                list.setItems(items);
+            }
+            if (data.containsKey("ordered"))
+                list.setOrdered((Boolean) data.getOrDefault("ordered", false));
+        } else if (element instanceof CodeBlock code) {
+            if (data.containsKey("content"))
+                code.setContent((String) data.get("content"));
+            if (data.containsKey("language"))
+                code.setLanguage((String) data.get("language"));
+        }
+    }
+}
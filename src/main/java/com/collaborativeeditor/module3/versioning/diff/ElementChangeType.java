@@ -0,0 +1,13 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+/**
+ * Kinds of element differences between two versions of a document.
+ * 
+ * @author Arch_Force Team
+ */
+public enum ElementChangeType {
+    ADDED,
+    REMOVED,
+    MODIFIED,
+    MOVED
+}
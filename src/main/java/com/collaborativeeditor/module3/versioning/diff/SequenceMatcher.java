@@ -0,0 +1,91 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Longest common subsequence matching shared by the element and text diffs.
+ * 
+ * Common prefixes and suffixes are matched directly; the middle is solved by
+ * dynamic programming unless it exceeds {@code maxCells}, in which case it is
+ * left unmatched (reported as a plain replacement) to bound time and memory.
+ * 
+ * @author Arch_Force Team
+ */
+final class SequenceMatcher {
+
+    private SequenceMatcher() {
+    }
+
+    /**
+     * Matches two sequences.
+     * 
+     * @param a        first sequence
+     * @param b        second sequence
+     * @param maxCells largest DP table to build
+     * @return matched {@code [indexInA, indexInB]} pairs, increasing in both indexes
+     */
+    static <T> List<int[]> match(List<T> a, List<T> b, long maxCells) {
+        // Compare small integers instead of the items themselves
+        Map<T, Integer> symbols = new HashMap<>();
+        int[] x = symbolize(a, symbols);
+        int[] y = symbolize(b, symbols);
+
+        int start = 0;
+        while (start < x.length && start < y.length && x[start] == y[start]) {
+            start++;
+        }
+        int endX = x.length;
+        int endY = y.length;
+        while (endX > start && endY > start && x[endX - 1] == y[endY - 1]) {
+            endX--;
+            endY--;
+        }
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int k = 0; k < start; k++) {
+            pairs.add(new int[] { k, k });
+        }
+
+        int n = endX - start;
+        int m = endY - start;
+        if (n > 0 && m > 0 && (long) n * m <= maxCells) {
+            int[][] lengths = new int[n + 1][m + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                for (int j = m - 1; j >= 0; j--) {
+                    lengths[i][j] = x[start + i] == y[start + j]
+                            ? lengths[i + 1][j + 1] + 1
+                            : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+                }
+            }
+            int i = 0;
+            int j = 0;
+            while (i < n && j < m) {
+                if (x[start + i] == y[start + j]) {
+                    pairs.add(new int[] { start + i, start + j });
+                    i++;
+                    j++;
+                } else if (lengths[i + 1][j] >= lengths[i][j + 1]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+
+        for (int k = 0; endX + k < x.length; k++) {
+            pairs.add(new int[] { endX + k, endY + k });
+        }
+        return pairs;
+    }
+
+    private static <T> int[] symbolize(List<T> items, Map<T, Integer> symbols) {
+        int[] result = new int[items.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = symbols.computeIfAbsent(items.get(i), item -> symbols.size());
+        }
+        return result;
+    }
+}
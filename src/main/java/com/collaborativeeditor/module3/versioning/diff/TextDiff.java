@@ -0,0 +1,113 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import com.collaborativeeditor.dto.TextDiffSegment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Word-level diff of element text. Text is split into words, whitespace runs
+ * and punctuation, and the tokens are matched with {@link SequenceMatcher}.
+ * 
+ * @author Arch_Force Team
+ */
+final class TextDiff {
+
+    private static final Pattern TOKEN = Pattern.compile("\\s+|\\w+|[^\\w\\s]", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final long MAX_CELLS = 4_000_000L;
+
+    private TextDiff() {
+    }
+
+    /**
+     * Computes the segments turning one text into another.
+     * 
+     * @param before old text, may be null
+     * @param after  new text, may be null
+     * @return segments in order; adjacent segments never share an operation
+     */
+    static List<TextDiffSegment> diff(String before, String after) {
+        List<String> a = tokenize(before);
+        List<String> b = tokenize(after);
+
+        List<TextDiffSegment> segments = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        for (int[] pair : SequenceMatcher.match(a, b, MAX_CELLS)) {
+            append(segments, TextDiffOperation.DELETE, a, i, pair[0]);
+            append(segments, TextDiffOperation.INSERT, b, j, pair[1]);
+            append(segments, TextDiffOperation.EQUAL, a, pair[0], pair[0] + 1);
+            i = pair[0] + 1;
+            j = pair[1] + 1;
+        }
+        append(segments, TextDiffOperation.DELETE, a, i, a.size());
+        append(segments, TextDiffOperation.INSERT, b, j, b.size());
+        return segments;
+    }
+
+    /**
+     * Measures how much two texts have in common, as the Dice coefficient of
+     * their words.
+     * 
+     * @param a first text, may be null
+     * @param b second text, may be null
+     * @return 0 for no common words, 1 for the same words
+     */
+    static double similarity(String a, String b) {
+        Map<String, Integer> words = new HashMap<>();
+        int countA = 0;
+        for (String token : tokenize(a)) {
+            if (isWord(token)) {
+                words.merge(token, 1, Integer::sum);
+                countA++;
+            }
+        }
+        int countB = 0;
+        int shared = 0;
+        for (String token : tokenize(b)) {
+            if (isWord(token)) {
+                countB++;
+                Integer remaining = words.get(token);
+                if (remaining != null && remaining > 0) {
+                    words.put(token, remaining - 1);
+                    shared++;
+                }
+            }
+        }
+        return countA + countB == 0 ? 1.0 : 2.0 * shared / (countA + countB);
+    }
+
+    private static void append(List<TextDiffSegment> segments, TextDiffOperation operation, List<String> tokens,
+            int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        String text = String.join("", tokens.subList(from, to));
+        TextDiffSegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && last.getOperation() == operation) {
+            last.setText(last.getText() + text);
+        } else {
+            segments.add(new TextDiffSegment(operation, text));
+        }
+    }
+
+    private static boolean isWord(String token) {
+        char first = token.charAt(0);
+        return Character.isLetterOrDigit(first) || first == '_';
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text != null) {
+            Matcher matcher = TOKEN.matcher(text);
+            while (matcher.find()) {
+                tokens.add(matcher.group());
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,12 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+/**
+ * Operations of a text diff segment.
+ * 
+ * @author Arch_Force Team
+ */
+public enum TextDiffOperation {
+    EQUAL,
+    INSERT,
+    DELETE
+}
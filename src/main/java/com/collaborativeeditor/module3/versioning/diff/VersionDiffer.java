@@ -0,0 +1,281 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import com.collaborativeeditor.dto.ElementDiff;
+import com.collaborativeeditor.dto.TextDiffSegment;
+import com.collaborativeeditor.dto.VersionDiff;
+import com.collaborativeeditor.module3.versioning.memento.DocumentVersion;
+import com.collaborativeeditor.module3.versioning.memento.MementoCaretaker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compares two stored versions of a document without restoring either.
+ * 
+ * Snapshots keep no element identity (element IDs are reassigned on every
+ * restore), so elements are matched by content: the longest common
+ * subsequence of the two element lists is unchanged and an element found at
+ * another position is moved. Of the rest, a text element is paired as
+ * modified with the most similar new text element of its type, and other
+ * removed and added elements of the same type (images, tables, lists) are
+ * paired by position within each run of unmatched elements.
+ * 
+ * Stored versions never change, so diffs are cached by version row pair.
+ * Diffs carry the changed elements of both versions, so the cache is
+ * budgeted by their serialized size rather than by number of diffs.
+ * 
+ * @author Arch_Force Team
+ */
+@Component
+public class VersionDiffer {
+
+    private static final Set<String> TEXT_TYPES = Set.of("paragraph", "heading", "code");
+    private static final String WRAPPED_ELEMENT = "wrappedElement";
+    private static final long MAX_CELLS = 4_000_000L;
+    // Share of words an edited paragraph must keep to be reported as modified rather than replaced
+    private static final double MIN_TEXT_SIMILARITY = 0.5;
+
+    private final MementoCaretaker caretaker;
+    private final Cache<String, VersionDiff> cache;
+
+    public VersionDiffer(MementoCaretaker caretaker, MeterRegistry meterRegistry,
+            @Value("${editor.versions.diff.cache.max-size:32MB}") DataSize maxCacheSize) {
+        this.caretaker = caretaker;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxCacheSize.toBytes())
+                .weigher((String key, VersionDiff diff) -> weigh(diff))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "version-diffs");
+    }
+
+    /**
+     * Computes the differences between two versions of a document.
+     * 
+     * @param documentId  document ID
+     * @param fromVersion older version name
+     * @param toVersion   newer version name
+     * @return diff, or empty if either version does not exist
+     */
+    public Optional<VersionDiff> diff(String documentId, String fromVersion, String toVersion) {
+        Optional<DocumentVersion> from = caretaker.findVersion(documentId, fromVersion);
+        Optional<DocumentVersion> to = caretaker.findVersion(documentId, toVersion);
+        if (from.isEmpty() || to.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = from.get().getId() + ":" + to.get().getId();
+        return Optional.of(cache.get(key, k -> compute(documentId, from.get(), to.get())));
+    }
+
+    private VersionDiff compute(String documentId, DocumentVersion from, DocumentVersion to) {
+        List<JsonNode> before = toList(caretaker.readElements(from));
+        List<JsonNode> after = toList(caretaker.readElements(to));
+        List<int[]> anchors = SequenceMatcher.match(before, after, MAX_CELLS);
+
+        boolean[] matchedBefore = new boolean[before.size()];
+        boolean[] matchedAfter = new boolean[after.size()];
+        for (int[] anchor : anchors) {
+            matchedBefore[anchor[0]] = true;
+            matchedAfter[anchor[1]] = true;
+        }
+
+        // Elements outside the common subsequence that still exist elsewhere were moved
+        Map<JsonNode, Deque<Integer>> unmatched = new HashMap<>();
+        for (int i = 0; i < before.size(); i++) {
+            if (!matchedBefore[i]) {
+                unmatched.computeIfAbsent(before.get(i), node -> new ArrayDeque<>()).add(i);
+            }
+        }
+        List<ElementDiff> moves = new ArrayList<>();
+        for (int j = 0; j < after.size(); j++) {
+            Deque<Integer> candidates = matchedAfter[j] ? null : unmatched.get(after.get(j));
+            Integer i = candidates != null ? candidates.poll() : null;
+            if (i != null) {
+                matchedBefore[i] = true;
+                matchedAfter[j] = true;
+                moves.add(new ElementDiff(ElementChangeType.MOVED, typeOf(after.get(j)), i, j, null,
+                        after.get(j), null));
+            }
+        }
+
+        List<ElementDiff> changes = new ArrayList<>(moves);
+        pairSimilarText(before, after, matchedBefore, matchedAfter, changes);
+
+        // Report what remains per gap between anchors
+        int i = 0;
+        int j = 0;
+        for (int[] anchor : anchors) {
+            diffGap(before, after, matchedBefore, matchedAfter, i, anchor[0], j, anchor[1], changes);
+            i = anchor[0] + 1;
+            j = anchor[1] + 1;
+        }
+        diffGap(before, after, matchedBefore, matchedAfter, i, before.size(), j, after.size(), changes);
+
+        changes.sort(Comparator.comparing(VersionDiffer::position)
+                .thenComparing(ElementDiff::getChangeType));
+
+        int added = 0;
+        int removed = 0;
+        int modified = 0;
+        for (ElementDiff change : changes) {
+            switch (change.getChangeType()) {
+                case ADDED -> added++;
+                case REMOVED -> removed++;
+                case MODIFIED -> modified++;
+                default -> {
+                }
+            }
+        }
+        return new VersionDiff(documentId, from.getVersion(), to.getVersion(), added, removed, modified,
+                moves.size(), changes);
+    }
+
+    /**
+     * Pairs edited text elements with the most similar unmatched text element
+     * of the same type, wherever it moved to.
+     */
+    private void pairSimilarText(List<JsonNode> before, List<JsonNode> after, boolean[] matchedBefore,
+            boolean[] matchedAfter, List<ElementDiff> changes) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int j = 0; j < after.size(); j++) {
+            if (!matchedAfter[j] && TEXT_TYPES.contains(typeOf(after.get(j)))) {
+                candidates.add(j);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        long comparisons = 0;
+        for (int i = 0; i < before.size() && comparisons <= MAX_CELLS; i++) {
+            String type = typeOf(before.get(i));
+            if (matchedBefore[i] || !TEXT_TYPES.contains(type)) {
+                continue;
+            }
+            String text = before.get(i).path("content").asText(null);
+            Integer best = null;
+            double bestSimilarity = MIN_TEXT_SIMILARITY;
+            for (Integer j : candidates) {
+                comparisons++;
+                if (matchedAfter[j] || !type.equals(typeOf(after.get(j)))) {
+                    continue;
+                }
+                double similarity = TextDiff.similarity(text, after.get(j).path("content").asText(null));
+                if (similarity >= bestSimilarity) {
+                    best = j;
+                    bestSimilarity = similarity;
+                }
+            }
+            if (best != null) {
+                matchedBefore[i] = true;
+                matchedAfter[best] = true;
+                changes.add(modified(type, i, best, before.get(i), after.get(best)));
+            }
+        }
+    }
+
+    private void diffGap(List<JsonNode> before, List<JsonNode> after, boolean[] matchedBefore,
+            boolean[] matchedAfter, int fromStart, int fromEnd, int toStart, int toEnd, List<ElementDiff> changes) {
+        List<Integer> inserted = new ArrayList<>();
+        for (int j = toStart; j < toEnd; j++) {
+            if (!matchedAfter[j]) {
+                inserted.add(j);
+            }
+        }
+
+        for (int i = fromStart; i < fromEnd; i++) {
+            if (matchedBefore[i]) {
+                continue;
+            }
+            String type = typeOf(before.get(i));
+            Integer partner = null;
+            // Text elements were already paired by similarity; the rest were replaced
+            for (Integer j : TEXT_TYPES.contains(type) ? List.<Integer>of() : inserted) {
+                if (type.equals(typeOf(after.get(j)))) {
+                    partner = j;
+                    break;
+                }
+            }
+            if (partner == null) {
+                changes.add(new ElementDiff(ElementChangeType.REMOVED, type, i, null, before.get(i), null, null));
+            } else {
+                inserted.remove(partner);
+                changes.add(modified(type, i, partner, before.get(i), after.get(partner)));
+            }
+        }
+
+        for (Integer j : inserted) {
+            changes.add(new ElementDiff(ElementChangeType.ADDED, typeOf(after.get(j)), null, j, null, after.get(j),
+                    null));
+        }
+    }
+
+    private static ElementDiff modified(String type, int fromIndex, int toIndex, JsonNode before, JsonNode after) {
+        return new ElementDiff(ElementChangeType.MODIFIED, type, fromIndex, toIndex, before, after,
+                textDiff(type, before, after));
+    }
+
+    /**
+     * Orders changes by position in the newer version; removals by their old position.
+     */
+    private static int position(ElementDiff change) {
+        return change.getToIndex() != null ? change.getToIndex() : change.getFromIndex();
+    }
+
+    private static List<TextDiffSegment> textDiff(String type, JsonNode before, JsonNode after) {
+        if (!TEXT_TYPES.contains(type)) {
+            return null;
+        }
+        return TextDiff.diff(before.path("content").asText(null), after.path("content").asText(null));
+    }
+
+    /**
+     * Gets the type of the underlying element, looking through decorators.
+     */
+    private static String typeOf(JsonNode element) {
+        JsonNode current = element;
+        while (current.has(WRAPPED_ELEMENT) && current.get(WRAPPED_ELEMENT).isObject()) {
+            current = current.get(WRAPPED_ELEMENT);
+        }
+        return current.path("type").asText("unknown");
+    }
+
+    /**
+     * Estimates the memory held by a diff from the serialized size of what it carries.
+     */
+    private static int weigh(VersionDiff diff) {
+        long size = 0;
+        for (ElementDiff change : diff.getChanges()) {
+            size += change.getBefore() != null ? change.getBefore().toString().length() : 0;
+            size += change.getAfter() != null ? change.getAfter().toString().length() : 0;
+            if (change.getTextDiff() != null) {
+                for (TextDiffSegment segment : change.getTextDiff()) {
+                    size += segment.getText() != null ? segment.getText().length() : 0;
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, size));
+    }
+
+    private static List<JsonNode> toList(ArrayNode elements) {
+        List<JsonNode> list = new ArrayList<>(elements.size());
+        elements.forEach(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,27 @@
+package com.collaborativeeditor.module3.versioning.journal;
+
+/**
+ * Kinds of element-level changes recorded in the document change journal.
+ * 
+ * @author Arch_Force Team
+ */
+public enum ChangeType {
+
+    /** An element was inserted at a position. */
+    ELEMENT_ADDED,
+
+    /** An existing element's content changed in place. */
+    ELEMENT_UPDATED,
+
+    /** An element was removed. */
+    ELEMENT_REMOVED,
+
+    /** An element was moved to another position. */
+    ELEMENT_REORDERED,
+
+    /**
+     * The whole element list was replaced (e.g. a version restore).
+     * Clients behind this change must reload a full snapshot.
+     */
+    DOCUMENT_REPLACED
+}
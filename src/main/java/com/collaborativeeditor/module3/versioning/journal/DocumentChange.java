@@ -0,0 +1,63 @@
+package com.collaborativeeditor.module3.versioning.journal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the per-document change journal.
+ * Records a single element-level change together with the document version
+ * it produced, so clients can catch up with deltas instead of reloading.
+ * 
+ * @author Arch_Force Team
+ */
+@Entity
+@jakarta.persistence.Table(name = "document_changes", indexes = {
+        @Index(name = "idx_document_changes_doc_version", columnList = "documentId, documentVersion")
+})
+@Data
+@NoArgsConstructor
+public class DocumentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String documentId;
+
+    /** Document version after this change was committed. */
+    @Column(nullable = false)
+    private Long documentVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ChangeType changeType;
+
+    private Long elementId;
+
+    /** Index of the element in the document after (or, for removals, before) the change. */
+    private Integer position;
+
+    /** Element state after the change, serialized as JSON. */
+    @JsonRawValue
+    @JsonProperty("element")
+    @Column(columnDefinition = "TEXT")
+    private String elementJson;
+
+    private LocalDateTime changedAt;
+
+    public DocumentChange(String documentId, Long documentVersion, ChangeType changeType,
+            Long elementId, Integer position, String elementJson) {
+        this.documentId = documentId;
+        this.documentVersion = documentVersion;
+        this.changeType = changeType;
+        this.elementId = elementId;
+        this.position = position;
+        this.elementJson = elementJson;
+        this.changedAt = LocalDateTime.now();
+    }
+}
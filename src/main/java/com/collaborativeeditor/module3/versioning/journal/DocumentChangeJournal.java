@@ -0,0 +1,219 @@
+package com.collaborativeeditor.module3.versioning.journal;
+
+import com.collaborativeeditor.event.DocumentContentEvent;
+import com.collaborativeeditor.event.DocumentReplaced;
+import com.collaborativeeditor.event.ElementAdded;
+import com.collaborativeeditor.event.ElementMoved;
+import com.collaborativeeditor.event.ElementRemoved;
+import com.collaborativeeditor.event.ElementUpdated;
+import com.collaborativeeditor.event.StyleApplied;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import com.collaborativeeditor.repository.DocumentChangeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records element-level changes per document version and answers
+ * "what changed since version N" queries for delta synchronization.
+ *
+ * Only the most recent {@link #RETAINED_VERSIONS} versions of each document
+ * are kept; clients further behind must reload a full snapshot.
+ *
+ * Changes are journaled from the {@link DocumentContentEvent}s published by
+ * the mutation paths. The journal listens synchronously, inside the
+ * transaction that saves the document, so a version is committed together
+ * with its entries or not at all; push channels only see the event after
+ * that commit.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentChangeJournal {
+
+    private static final int RETAINED_VERSIONS = 200;
+
+    private final DocumentChangeRepository changeRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Journals a change to the content of a document. Must be published in
+     * the transaction that saves the change.
+     *
+     * @param event content change
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onContentChanged(DocumentContentEvent event) {
+        if (event instanceof ElementAdded added) {
+            recordElementAdded(added.document(), added.element(), added.position());
+        } else if (event instanceof ElementUpdated updated) {
+            recordElementUpdated(updated.document(), updated.element(), updated.position());
+        } else if (event instanceof ElementRemoved removed) {
+            recordElementRemoved(removed.document(), removed.elementId(), removed.position());
+        } else if (event instanceof ElementMoved moved) {
+            recordElementReordered(moved.document(), moved.element(), moved.position());
+        } else if (event instanceof StyleApplied styled) {
+            // The decorator is a new element, so journal it as a replacement at the same index
+            recordElementRemoved(styled.document(), styled.replacedElementId(), styled.position());
+            recordElementAdded(styled.document(), styled.element(), styled.position());
+        } else if (event instanceof DocumentReplaced replaced) {
+            recordDocumentReplaced(replaced.document());
+        }
+    }
+
+    /**
+     * Records that an element was inserted into a document.
+     *
+     * @param document saved document
+     * @param element  element as persisted
+     * @param position index of the element in the document
+     */
+    @Transactional
+    public void recordElementAdded(Document document, Element element, int position) {
+        record(document, ChangeType.ELEMENT_ADDED, element.getId(), position, toJson(element));
+    }
+
+    /**
+     * Records that an element's content changed in place.
+     *
+     * @param document saved document
+     * @param element  element as persisted
+     * @param position index of the element in the document
+     */
+    @Transactional
+    public void recordElementUpdated(Document document, Element element, int position) {
+        record(document, ChangeType.ELEMENT_UPDATED, element.getId(), position, toJson(element));
+    }
+
+    /**
+     * Records that an element was removed from a document.
+     *
+     * @param document  saved document
+     * @param elementId ID of the removed element
+     * @param position  index the element had before removal
+     */
+    @Transactional
+    public void recordElementRemoved(Document document, Long elementId, int position) {
+        record(document, ChangeType.ELEMENT_REMOVED, elementId, position, null);
+    }
+
+    /**
+     * Records that an element was moved to another position.
+     *
+     * @param document saved document
+     * @param element  moved element
+     * @param position new index of the element in the document
+     */
+    @Transactional
+    public void recordElementReordered(Document document, Element element, int position) {
+        record(document, ChangeType.ELEMENT_REORDERED, element.getId(), position, null);
+    }
+
+    /**
+     * Records that the whole element list of a document was replaced.
+     *
+     * @param document saved document
+     */
+    @Transactional
+    public void recordDocumentReplaced(Document document) {
+        record(document, ChangeType.DOCUMENT_REPLACED, null, null, null);
+    }
+
+    /**
+     * Gets the changes committed after a given version.
+     *
+     * @param documentId     document ID
+     * @param sinceVersion   last version the client has seen
+     * @param currentVersion current version of the document
+     * @return ordered changes, or empty if the journal cannot cover the range
+     *         and the client must reload a full snapshot
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<DocumentChange>> getChangesSince(String documentId, long sinceVersion, long currentVersion) {
+        if (sinceVersion > currentVersion) {
+            return Optional.empty();
+        }
+        if (sinceVersion == currentVersion) {
+            return Optional.of(List.of());
+        }
+
+        Long oldest = changeRepository.findOldestVersion(documentId).orElse(null);
+        if (oldest == null || sinceVersion < oldest - 1) {
+            return Optional.empty();
+        }
+
+        List<DocumentChange> changes = changeRepository
+                .findByDocumentIdAndDocumentVersionGreaterThanOrderByIdAsc(documentId, sinceVersion);
+        return covers(changes, sinceVersion, currentVersion)
+                ? Optional.of(changes.stream().filter(c -> c.getDocumentVersion() <= currentVersion).toList())
+                : Optional.empty();
+    }
+
+    /**
+     * Whether the entries describe every version after {@code sinceVersion}
+     * up to {@code currentVersion}. Versions saved without a content change,
+     * such as a move to the recycle bin, have no entries, and whole-document
+     * replacements cannot be replayed; both force a reload.
+     */
+    static boolean covers(List<DocumentChange> changes, long sinceVersion, long currentVersion) {
+        long expected = sinceVersion + 1;
+        for (DocumentChange change : changes) {
+            long version = change.getDocumentVersion();
+            if (version > currentVersion) {
+                break; // committed after the caller read the current version
+            }
+            if (change.getChangeType() == ChangeType.DOCUMENT_REPLACED) {
+                return false;
+            }
+            if (version == expected) {
+                expected++;
+            } else if (version != expected - 1) {
+                return false; // a version in between has no entries
+            }
+        }
+        return expected == currentVersion + 1;
+    }
+
+    /**
+     * Removes the journal of a document.
+     *
+     * @param documentId document ID
+     */
+    @Transactional
+    public void clear(String documentId) {
+        changeRepository.deleteByDocumentId(documentId);
+    }
+
+    private void record(Document document, ChangeType type, Long elementId, Integer position, String elementJson) {
+        changeRepository.save(new DocumentChange(
+                document.getId(),
+                document.getVersion(),
+                type,
+                elementId,
+                position,
+                elementJson));
+
+        changeRepository.deleteOlderThan(document.getId(), document.getVersion() - RETAINED_VERSIONS);
+    }
+
+    private String toJson(Element element) {
+        try {
+            // Journal entries are stored, not displayed; skip the pretty-printing configured for responses
+            return objectMapper.writer()
+                    .without(SerializationFeature.INDENT_OUTPUT)
+                    .writeValueAsString(element);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize element for the change journal", e);
+        }
+    }
+}
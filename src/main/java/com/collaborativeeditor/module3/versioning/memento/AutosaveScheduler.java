@@ -0,0 +1,179 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.event.DocumentContentEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Takes automatic versions of edited documents in the background.
+ *
+ * Every committed content change is counted per document, so edits that
+ * roll back are not, and a version taken at the threshold already contains
+ * the edit that reached it. A document is snapshotted once
+ * {@code editor.versions.autosave.edits} edits have accumulated or
+ * {@code editor.versions.autosave.interval} has passed since its first
+ * unsaved edit, whichever comes first, so a burst of edits produces a single
+ * version. Snapshots run on a small bounded pool, never on the request
+ * thread, and at most one runs per document at a time. When the pool is
+ * saturated the document stays pending and is retried on the next tick.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class AutosaveScheduler {
+
+    private final MementoCaretaker caretaker;
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final int editThreshold;
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, PendingEdits> pending = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AutosaveScheduler(MementoCaretaker caretaker,
+            @Value("${editor.versions.autosave.enabled:true}") boolean enabled,
+            @Value("${editor.versions.autosave.interval:5m}") Duration interval,
+            @Value("${editor.versions.autosave.edits:50}") int editThreshold,
+            @Value("${editor.versions.autosave.threads:2}") int threads,
+            @Value("${editor.versions.autosave.queue-capacity:100}") int queueCapacity) {
+        this(caretaker, enabled, interval, editThreshold, newExecutor(threads, queueCapacity), System::nanoTime);
+    }
+
+    AutosaveScheduler(MementoCaretaker caretaker, boolean enabled, Duration interval, int editThreshold,
+            Executor executor, LongSupplier nanoClock) {
+        this.caretaker = caretaker;
+        this.enabled = enabled;
+        this.intervalNanos = interval.toNanos();
+        this.editThreshold = Math.max(1, editThreshold);
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "autosave-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Counts a committed content change towards the next automatic version.
+     *
+     * @param event content change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(DocumentContentEvent event) {
+        recordEdit(event.documentId());
+    }
+
+    /**
+     * Records a committed edit of a document. Cheap enough to call on every
+     * edit; the snapshot itself is taken asynchronously.
+     *
+     * @param documentId edited document
+     */
+    public void recordEdit(String documentId) {
+        if (!enabled) {
+            return;
+        }
+        PendingEdits edits = pending.computeIfAbsent(documentId, id -> new PendingEdits(nanoClock.getAsLong()));
+        if (edits.count.incrementAndGet() >= editThreshold) {
+            trySubmit(documentId, edits);
+        }
+    }
+
+    /**
+     * Snapshots documents whose oldest unsaved edit has waited a full interval,
+     * and those that reached the edit threshold while a snapshot was running.
+     */
+    @Scheduled(fixedDelayString = "${editor.versions.autosave.tick:PT15S}")
+    public void snapshotDueDocuments() {
+        long now = nanoClock.getAsLong();
+        pending.forEach((documentId, edits) -> {
+            if (now - edits.firstEditNanos >= intervalNanos || edits.count.get() >= editThreshold) {
+                trySubmit(documentId, edits);
+            }
+        });
+    }
+
+    private void trySubmit(String documentId, PendingEdits edits) {
+        if (!inFlight.add(documentId)) {
+            return; // the running snapshot's successor picks these edits up
+        }
+        // Edits arriving from here on start a new pending entry
+        if (!pending.remove(documentId, edits)) {
+            inFlight.remove(documentId);
+            return;
+        }
+        try {
+            executor.execute(() -> snapshot(documentId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(documentId);
+            pending.merge(documentId, edits, PendingEdits::merge);
+        }
+    }
+
+    private void snapshot(String documentId) {
+        try {
+            caretaker.saveAutomaticMemento(documentId);
+        } catch (DataIntegrityViolationException e) {
+            // Another node took a version of the same document in the same millisecond
+            log.debug("Automatic version of document {} already taken elsewhere", documentId);
+        } catch (RuntimeException e) {
+            log.warn("Automatic version of document {} failed", documentId, e);
+        } finally {
+            inFlight.remove(documentId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+            service.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class PendingEdits {
+
+        private final long firstEditNanos;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private PendingEdits(long firstEditNanos) {
+            this.firstEditNanos = firstEditNanos;
+        }
+
+        private PendingEdits merge(PendingEdits newer) {
+            long first = newer.firstEditNanos - firstEditNanos < 0 ? newer.firstEditNanos : firstEditNanos;
+            PendingEdits merged = new PendingEdits(first);
+            merged.count.set(count.get() + newer.count.get());
+            return merged;
+        }
+    }
+}
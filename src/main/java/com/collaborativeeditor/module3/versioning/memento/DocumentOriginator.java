@@ -1,6 +1,7 @@
 package com.collaborativeeditor.module3.versioning.memento;
 
 import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
 
 /**
  * Originator in the Memento pattern.
@@ -61,6 +62,8 @@ public class DocumentOriginator {
         document.setAuthor(memento.getAuthor());
         document.getElements().clear();
         if (memento.getElements() != null) {
+            // Insert the snapshot as new rows instead of merging stale IDs one by one
+            memento.getElements().forEach(Element::clearIds);
             document.getElements().addAll(memento.getElements());
         }
         document.setMetadata(memento.getMetadata());
@@ -12,11 +12,25 @@ import java.time.LocalDateTime;
  * @author Arch_Force Team
  */
 @Entity
-@jakarta.persistence.Table(name = "document_versions")
+@jakarta.persistence.Table(name = "document_versions", indexes = {
+        // History listings, newest first
+        @Index(name = "idx_document_versions_doc_time", columnList = "documentId, snapshotTime"),
+        // Deltas that must be materialized before their base version is deleted
+        @Index(name = "idx_document_versions_base", columnList = "baseVersionId")
+}, uniqueConstraints = {
+        // Version names identify versions within a document
+        @UniqueConstraint(name = "uk_document_versions_doc_version", columnNames = { "documentId", "version" })
+})
 @Data
 @NoArgsConstructor
 public class DocumentVersion {
 
+    /** The snapshot holds the serialized elements themselves (rows written before the blob store). */
+    public static final int FORMAT_INLINE = 0;
+
+    /** The snapshot holds hashes into the element blob store. */
+    public static final int FORMAT_HASHED = 1;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,17 +50,59 @@ public class DocumentVersion {
     @Column(columnDefinition = "TEXT")
     private String metadata;
 
-    @Column(columnDefinition = "TEXT") // Store elements as JSON
+    // Uncompressed JSON snapshot of rows not yet moved to the snapshot column
+    @Column(columnDefinition = "TEXT")
     private String elementsJson;
 
+    // JSON snapshot, the full list on keyframes and a delta otherwise (see VersionSnapshotStore),
+    // encoded by SnapshotCompressor behind a codec header byte
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] snapshot;
+
+    // FORMAT_INLINE or FORMAT_HASHED; null on legacy rows, which are inline
+    private Integer snapshotFormat;
+
+    // Version the delta in the snapshot applies to; null on keyframes
+    private Long baseVersionId;
+
+    // Number of deltas between this version and its keyframe
+    private Integer chainLength;
+
+    // Listing metadata, kept in columns so listings never read the snapshot
+    private Integer elementCount;
+
+    private Long snapshotSize; // bytes stored for the snapshot
+
+    // Taken by AutosaveScheduler rather than named by a user
+    @Column(nullable = false)
+    private boolean automatic;
+
+    // Included in the reference counts of its element blobs; false on rows saved before counting
+    @Column(nullable = false)
+    private boolean blobsCounted;
+
     public DocumentVersion(String documentId, String version, String title, String author, String metadata,
-            String elementsJson, LocalDateTime snapshotTime) {
+            int elementCount, LocalDateTime snapshotTime) {
         this.documentId = documentId;
         this.version = version;
         this.title = title;
         this.author = author;
         this.metadata = metadata;
-        this.elementsJson = elementsJson;
+        this.elementCount = elementCount;
         this.snapshotTime = snapshotTime;
     }
+
+    public boolean isHashed() {
+        return snapshotFormat != null && snapshotFormat == FORMAT_HASHED;
+    }
+
+    /**
+     * Stores an encoded snapshot, replacing any legacy uncompressed one.
+     */
+    public void setSnapshot(byte[] snapshot) {
+        this.snapshot = snapshot;
+        this.elementsJson = null;
+        this.snapshotSize = snapshot != null ? (long) snapshot.length : null;
+    }
 }
@@ -0,0 +1,46 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized element stored once under the SHA-256 hash of its canonical JSON.
+ * Version snapshots reference elements by hash, so an element that did not
+ * change is shared by every version and document containing it.
+ * 
+ * @author Arch_Force Team
+ */
+@Entity
+@jakarta.persistence.Table(name = "element_blobs", indexes = {
+        // Sweep of unreferenced blobs
+        @Index(name = "idx_element_blobs_unreferenced", columnList = "refCount, hash")
+})
+@Data
+@NoArgsConstructor
+public class ElementBlob {
+
+    /** Hex-encoded SHA-256 of the canonical element JSON. */
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Uncompressed JSON of blobs not yet moved to the data column
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String elementJson;
+
+    // Element JSON encoded by SnapshotCompressor behind a codec header byte
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+
+    // Last time a new snapshot referenced this blob; protects it from a concurrent sweep
+    private LocalDateTime lastReferencedAt;
+
+    // Number of versions whose snapshot contains this blob, counting each version once
+    @Column(nullable = false)
+    private int refCount;
+}
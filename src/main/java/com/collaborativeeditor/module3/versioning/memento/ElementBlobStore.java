@@ -0,0 +1,263 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.module3.versioning.codec.SnapshotCompressor;
+import com.collaborativeeditor.repository.ElementBlobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content-addressed store for serialized elements.
+ *
+ * Elements are reduced to a canonical JSON form (compact, without database
+ * IDs, which are reassigned on restore anyway) and stored once under the
+ * SHA-256 of that form, compressed by {@link SnapshotCompressor}. Snapshots
+ * then only keep the list of hashes. Each blob counts the versions whose
+ * snapshot contains it, so unreferenced blobs are found without reading
+ * any snapshot.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+public class ElementBlobStore {
+
+    private static final String WRAPPED_ELEMENT = "wrappedElement";
+    // Keeps IN lists of bulk statements to a reasonable size
+    private static final int CHUNK_SIZE = 500;
+
+    private final ElementBlobRepository blobRepository;
+    private final SnapshotCompressor compressor;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+
+    public ElementBlobStore(ElementBlobRepository blobRepository, SnapshotCompressor compressor,
+            ObjectMapper objectMapper) {
+        this.blobRepository = blobRepository;
+        this.compressor = compressor;
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Stores the elements of a snapshot and returns their hashes, in order.
+     * Every stored blob is marked as referenced now, which keeps the sweep
+     * away from it until the version is saved and counts its references;
+     * only the blobs that are not stored yet are looked up and inserted.
+     *
+     * @param elements serialized elements
+     * @return array of hashes
+     */
+    public ArrayNode store(ArrayNode elements) {
+        ArrayNode hashes = objectMapper.createArrayNode();
+        Map<String, String> candidates = new LinkedHashMap<>();
+        for (JsonNode element : elements) {
+            String json = toJson(canonicalize(element.deepCopy()));
+            String hash = sha256(json);
+            hashes.add(hash);
+            candidates.putIfAbsent(hash, json);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> distinct = new ArrayList<>(candidates.keySet());
+        int marked = 0;
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            marked += blobRepository.markReferenced(
+                    distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())), now);
+        }
+        if (marked < distinct.size()) {
+            blobRepository.findExistingHashes(distinct).forEach(candidates::remove);
+            candidates.forEach((hash, json) -> blobRepository.insertIfAbsent(hash, compressor.compress(json), now));
+        }
+        return hashes;
+    }
+
+    /**
+     * Resolves a list of hashes back into serialized elements.
+     *
+     * @param hashes array of hashes
+     * @return serialized elements, in order
+     */
+    public ArrayNode resolve(ArrayNode hashes) {
+        Set<String> wanted = new HashSet<>();
+        hashes.forEach(hash -> wanted.add(hash.asText()));
+
+        Map<String, JsonNode> blobs = new HashMap<>();
+        for (ElementBlob blob : blobRepository.findAllById(wanted)) {
+            String json = blob.getData() != null ? compressor.decompress(blob.getData()) : blob.getElementJson();
+            blobs.put(blob.getHash(), parse(json));
+        }
+
+        ArrayNode elements = objectMapper.createArrayNode();
+        for (JsonNode hash : hashes) {
+            JsonNode element = blobs.get(hash.asText());
+            if (element == null) {
+                throw new IllegalStateException("Missing element blob " + hash.asText());
+            }
+            elements.add(element.deepCopy());
+        }
+        return elements;
+    }
+
+    /**
+     * Moves a batch of legacy blobs from the uncompressed column to the compressed one.
+     *
+     * @param batchSize maximum number of blobs to convert
+     * @return number of blobs converted
+     */
+    @Transactional
+    public int compressLegacyBlobs(int batchSize) {
+        List<ElementBlob> legacy = blobRepository.findByDataIsNull(PageRequest.of(0, batchSize));
+        for (ElementBlob blob : legacy) {
+            blob.setData(compressor.compress(blob.getElementJson()));
+            blob.setElementJson(null);
+        }
+        return legacy.size();
+    }
+
+    /**
+     * Counts a new version's references to its blobs. A hash occurring several
+     * times in the snapshot counts once.
+     *
+     * @param hashes hashes of the version's snapshot
+     * @throws IllegalStateException if a blob was swept since it was stored,
+     *         so the surrounding transaction rolls back instead of saving a
+     *         version that cannot be restored
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addReferences(ArrayNode hashes) {
+        Map<String, Integer> counts = new HashMap<>();
+        hashes.forEach(hash -> counts.put(hash.asText(), 1));
+        int counted = adjustReferences(counts, 1);
+        if (counted < counts.size()) {
+            throw new IllegalStateException(
+                    "Missing " + (counts.size() - counted) + " of " + counts.size() + " element blobs");
+        }
+    }
+
+    /**
+     * Releases the references of versions about to be deleted.
+     *
+     * @param snapshots hashes of each deleted version's snapshot
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeReferences(Collection<ArrayNode> snapshots) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (ArrayNode hashes : snapshots) {
+            Set<String> distinct = new HashSet<>();
+            hashes.forEach(hash -> distinct.add(hash.asText()));
+            distinct.forEach(hash -> counts.merge(hash, 1, Integer::sum));
+        }
+        adjustReferences(counts, -1);
+    }
+
+    /**
+     * Lists a page of blobs that no version references and no snapshot has
+     * referenced since the given time.
+     *
+     * @param afterHash last hash of the previous page, or "" for the first page
+     * @param before    idle cutoff
+     * @param batchSize page size
+     * @return hashes in ascending order
+     */
+    public List<String> findUnreferencedHashes(String afterHash, LocalDateTime before, int batchSize) {
+        return blobRepository.findUnreferencedHashes(afterHash, before, PageRequest.of(0, batchSize));
+    }
+
+    /**
+     * Deletes the given blobs in a single statement, unless a snapshot stored
+     * since they were listed references them again. Storing a snapshot marks
+     * its blobs in the saving transaction, so the delete either waits for
+     * that transaction or runs before it and makes it insert the blob again.
+     *
+     * @param hashes hashes of blobs no version referenced
+     * @param before idle cutoff the blobs were listed with
+     * @return number of blobs deleted
+     */
+    @Transactional
+    public int deleteUnreferenced(Collection<String> hashes, LocalDateTime before) {
+        return hashes.isEmpty() ? 0 : blobRepository.deleteUnreferenced(hashes, before);
+    }
+
+    /**
+     * Applies reference count changes with one statement per distinct amount
+     * and chunk of hashes, so hashes shared by many versions cost no more.
+     *
+     * @return number of blobs updated
+     */
+    private int adjustReferences(Map<String, Integer> counts, int sign) {
+        Map<Integer, List<String>> byAmount = new HashMap<>();
+        counts.forEach((hash, count) -> byAmount.computeIfAbsent(count, c -> new ArrayList<>()).add(hash));
+        int updated = 0;
+        for (Map.Entry<Integer, List<String>> entry : byAmount.entrySet()) {
+            List<String> hashes = entry.getValue();
+            for (int from = 0; from < hashes.size(); from += CHUNK_SIZE) {
+                updated += blobRepository.adjustReferences(
+                        hashes.subList(from, Math.min(from + CHUNK_SIZE, hashes.size())), sign * entry.getKey());
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Removes database IDs from a serialized element, including the elements
+     * it decorates. Modifies and returns the given node.
+     *
+     * @param element serialized element
+     * @return the same node, in canonical form
+     */
+    public JsonNode canonicalize(JsonNode element) {
+        JsonNode current = element;
+        while (current instanceof ObjectNode object) {
+            object.remove("id");
+            current = object.get(WRAPPED_ELEMENT);
+        }
+        return element;
+    }
+
+    private static String sha256(String json) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private JsonNode parse(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted element blob", e);
+        }
+    }
+
+    private String toJson(JsonNode node) {
+        try {
+            return compactWriter.writeValueAsString(node);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize element blob", e);
+        }
+    }
+}
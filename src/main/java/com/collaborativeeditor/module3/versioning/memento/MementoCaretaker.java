@@ -1,12 +1,24 @@
 package com.collaborativeeditor.module3.versioning.memento;
 
+import com.collaborativeeditor.dto.DocumentVersionSummary;
+import com.collaborativeeditor.event.VersionCreated;
 import com.collaborativeeditor.module1.creation.model.Element;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.repository.DocumentRepository;
 import com.collaborativeeditor.repository.DocumentVersionRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,32 +32,90 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MementoCaretaker {
 
+    // Keeps IN lists of bulk statements to a reasonable size
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    private static final String AUTOSAVE_PREFIX = "Autosave ";
+    private static final DateTimeFormatter AUTOSAVE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     private final DocumentVersionRepository versionRepository;
+    private final DocumentRepository documentRepository;
+    private final VersionSnapshotStore snapshotStore;
+    private final ElementBlobStore blobStore;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Saves a memento for a document to the database.
+     * Elements go to the content-addressed blob store; the version keeps their
+     * hashes, as a delta against the previous version when possible.
      * 
      * @param documentId document ID
      * @param memento    memento to save
+     * @throws org.springframework.dao.DataIntegrityViolationException if the
+     *         document already has a version with the memento's name
      */
+    @Transactional
     public void saveMemento(String documentId, DocumentMemento memento) {
+        saveMemento(documentId, memento, false);
+    }
+
+    private void saveMemento(String documentId, DocumentMemento memento, boolean automatic) {
+        DocumentVersion versionEntity;
+        ArrayNode hashes;
         try {
-            String elementsJson = objectMapper.writeValueAsString(memento.getElements());
+            ArrayNode elements = objectMapper.valueToTree(memento.getElements());
 
-            DocumentVersion versionEntity = new DocumentVersion(
+            versionEntity = new DocumentVersion(
                     documentId,
                     memento.getVersion(),
                     memento.getTitle(),
                     memento.getAuthor(),
                     memento.getMetadata(),
-                    elementsJson,
+                    memento.getElements().size(),
                     memento.getSnapshotTime());
 
-            versionRepository.save(versionEntity);
+            // Legacy inline rows cannot serve as delta bases for hashed ones
+            DocumentVersion previous = versionRepository.findFirstByDocumentIdOrderByIdDesc(documentId)
+                    .filter(DocumentVersion::isHashed)
+                    .orElse(null);
+            ArrayNode previousHashes = previous != null ? snapshotStore.read(previous) : null;
+
+            hashes = blobStore.store(elements);
+            versionEntity.setSnapshotFormat(DocumentVersion.FORMAT_HASHED);
+            versionEntity.setAutomatic(automatic);
+            versionEntity.setBlobsCounted(true);
+            snapshotStore.write(versionEntity, hashes, previous, previousHashes);
         } catch (Exception e) {
             throw new RuntimeException("Failed to serialize document state", e);
         }
+        // Names are unique per document; a concurrent save of the same name fails here
+        // with a DataIntegrityViolationException, which callers map to a conflict
+        versionRepository.save(versionEntity);
+        blobStore.addReferences(hashes);
+        // Delivered once the surrounding transaction commits
+        eventPublisher.publishEvent(new VersionCreated(documentId, memento.getVersion(), automatic));
+    }
+
+    /**
+     * Takes an automatic version of the current state of a document. The
+     * document is only read, never locked, so concurrent edits are not
+     * blocked; the version reflects the last committed state.
+     * 
+     * @param documentId document ID
+     * @return true if a version was saved, false if the document no longer exists
+     */
+    @Transactional
+    public boolean saveAutomaticMemento(String documentId) {
+        Document document = documentRepository.findWithElementsById(documentId)
+                .filter(d -> !d.isDeleted())
+                .orElse(null);
+        if (document == null) {
+            return false;
+        }
+        String name = AUTOSAVE_PREFIX + LocalDateTime.now().format(AUTOSAVE_NAME_FORMAT);
+        saveMemento(documentId, new DocumentOriginator(document).createMemento(name), true);
+        return true;
     }
 
     /**
@@ -61,6 +131,34 @@ public class MementoCaretaker {
                 .orElse(null);
     }
 
+    /**
+     * Finds a stored version of a document.
+     * 
+     * @param documentId document ID
+     * @param version    version name
+     * @return stored version, if any
+     */
+    public Optional<DocumentVersion> findVersion(String documentId, String version) {
+        return versionRepository.findByDocumentIdAndVersion(documentId, version);
+    }
+
+    /**
+     * Reads the elements of a stored version as JSON, without database IDs,
+     * so that unchanged elements compare equal across versions.
+     * 
+     * @param version stored version
+     * @return serialized elements, in document order
+     */
+    public ArrayNode readElements(DocumentVersion version) {
+        ArrayNode entries = snapshotStore.read(version);
+        if (version.isHashed()) {
+            return blobStore.resolve(entries);
+        }
+        ArrayNode elements = objectMapper.createArrayNode();
+        entries.forEach(entry -> elements.add(blobStore.canonicalize(entry.deepCopy())));
+        return elements;
+    }
+
     /**
      * Gets all mementos for a document from the database.
      * 
@@ -74,6 +172,20 @@ public class MementoCaretaker {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lists the versions of a document, newest first, without reading or
+     * deserializing their snapshots.
+     * 
+     * @param documentId document ID
+     * @param page       zero-based page number
+     * @param size       page size
+     * @return page of version summaries
+     */
+    public Slice<DocumentVersionSummary> listVersions(String documentId, int page, int size) {
+        return versionRepository.findSummariesByDocumentId(documentId,
+                PageRequest.of(page, size, Sort.by(Sort.Order.desc("snapshotTime"), Sort.Order.desc("id"))));
+    }
+
     /**
      * Gets the latest memento for a document.
      * 
@@ -89,13 +201,58 @@ public class MementoCaretaker {
     }
 
     /**
-     * Clears all mementos for a document.
+     * Clears all mementos for a document with a single bulk delete, after
+     * releasing their element blob references.
      * 
      * @param documentId document ID
+     * @return number of versions deleted
      */
-    public void clearHistory(String documentId) {
-        List<DocumentVersion> versions = versionRepository.findByDocumentIdOrderBySnapshotTimeDesc(documentId);
-        versionRepository.deleteAll(versions);
+    @Transactional
+    public int clearHistory(String documentId) {
+        releaseBlobs(versionRepository.findCountedByDocumentId(documentId));
+        return versionRepository.deleteByDocumentId(documentId);
+    }
+
+    /**
+     * Deletes the versions of a document that the retention policy no longer
+     * keeps. Surviving versions stored as deltas against a deleted one are
+     * rewritten as keyframes first and the element blob references of the
+     * deleted ones are released; the deletes then run as bulk statements.
+     * 
+     * @param documentId document ID
+     * @param policy     retention policy
+     * @param now        reference time for version ages
+     * @return number of versions deleted
+     */
+    @Transactional
+    public int applyRetention(String documentId, VersionRetentionPolicy policy, LocalDateTime now) {
+        List<Long> expired = policy.selectExpired(
+                versionRepository.findStampsByDocumentIdOrderBySnapshotTimeDescIdDesc(documentId), now);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> doomed = new HashSet<>(expired);
+        int deleted = 0;
+        for (int from = 0; from < expired.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = expired.subList(from, Math.min(from + DELETE_CHUNK_SIZE, expired.size()));
+            for (DocumentVersion dependent : versionRepository.findByBaseVersionIdIn(chunk)) {
+                if (!doomed.contains(dependent.getId())) {
+                    snapshotStore.materialize(dependent);
+                }
+            }
+        }
+        versionRepository.flush();
+
+        for (int from = 0; from < expired.size(); from += DELETE_CHUNK_SIZE) {
+            releaseBlobs(versionRepository.findAllById(
+                    expired.subList(from, Math.min(from + DELETE_CHUNK_SIZE, expired.size()))));
+        }
+        for (int from = 0; from < expired.size(); from += DELETE_CHUNK_SIZE) {
+            deleted += versionRepository.deleteByIdIn(
+                    expired.subList(from, Math.min(from + DELETE_CHUNK_SIZE, expired.size())));
+        }
+        return deleted;
     }
 
     /**
@@ -105,19 +262,54 @@ public class MementoCaretaker {
      * @param version    version to delete
      * @return true if deleted, false if not found
      */
+    @Transactional
     public boolean deleteMemento(String documentId, String version) {
         Optional<DocumentVersion> versionEntity = versionRepository.findByDocumentIdAndVersion(documentId, version);
         if (versionEntity.isPresent()) {
+            // Versions stored as deltas against this one must become self-contained first
+            for (DocumentVersion dependent : versionRepository.findByBaseVersionId(versionEntity.get().getId())) {
+                snapshotStore.materialize(dependent);
+            }
+            releaseBlobs(List.of(versionEntity.get()));
             versionRepository.delete(versionEntity.get());
             return true;
         }
         return false;
     }
 
+    /**
+     * Counts the element blob references of a version saved before blobs
+     * were reference counted. The version is flagged first, so concurrent
+     * callers count it once.
+     * 
+     * @param versionId ID of a hashed version
+     * @return true if this call counted the version
+     */
+    @Transactional
+    public boolean countBlobReferences(Long versionId) {
+        if (versionRepository.markBlobsCounted(versionId) == 0) {
+            return false;
+        }
+        versionRepository.findById(versionId)
+                .ifPresent(version -> blobStore.addReferences(snapshotStore.read(version)));
+        return true;
+    }
+
+    private void releaseBlobs(List<DocumentVersion> versions) {
+        List<ArrayNode> snapshots = versions.stream()
+                .filter(DocumentVersion::isBlobsCounted)
+                .map(snapshotStore::read)
+                .toList();
+        if (!snapshots.isEmpty()) {
+            blobStore.removeReferences(snapshots);
+        }
+    }
+
     private DocumentMemento convertToMemento(DocumentVersion entity) {
         try {
-            List<Element> elements = objectMapper.readValue(
-                    entity.getElementsJson(),
+            ArrayNode entries = snapshotStore.read(entity);
+            List<Element> elements = objectMapper.convertValue(
+                    entity.isHashed() ? blobStore.resolve(entries) : entries,
                     new TypeReference<List<Element>>() {
                     });
 
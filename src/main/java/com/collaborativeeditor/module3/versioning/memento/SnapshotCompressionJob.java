@@ -0,0 +1,56 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Background job compressing version snapshots and element blobs that were
+ * stored before compression was introduced. Rows are converted in small
+ * batches, each in its own transaction, so the job never holds long locks.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class SnapshotCompressionJob {
+
+    private final VersionSnapshotStore snapshotStore;
+    private final ElementBlobStore blobStore;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public SnapshotCompressionJob(VersionSnapshotStore snapshotStore, ElementBlobStore blobStore,
+            @Value("${editor.versions.compression.batch-size:100}") int batchSize,
+            @Value("${editor.versions.compression.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.snapshotStore = snapshotStore;
+        this.blobStore = blobStore;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${editor.versions.compression.initial-delay:PT1M}",
+            fixedDelayString = "${editor.versions.compression.interval:PT10M}")
+    public void compressLegacyRows() {
+        int versions = drain(snapshotStore::compressLegacySnapshots);
+        int blobs = drain(blobStore::compressLegacyBlobs);
+        if (versions > 0 || blobs > 0) {
+            log.info("Compressed {} legacy version snapshots and {} element blobs", versions, blobs);
+        }
+    }
+
+    private int drain(IntUnaryOperator batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int converted = batch.applyAsInt(batchSize);
+            total += converted;
+            if (converted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,157 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.repository.DocumentVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background job enforcing {@link VersionRetentionPolicy}.
+ *
+ * Each run thins the versions of every document the policy may affect, one
+ * document per transaction, then sweeps element blobs that no remaining
+ * version references. Blobs count the versions referencing them as versions
+ * are saved and deleted, so the sweep reads no snapshots; versions saved
+ * before counting are counted once first, and nothing is swept until all
+ * of them are. Blobs referenced by a snapshot during the last
+ * {@code blob-grace-period} are never swept, which covers versions saved
+ * while the sweep runs. Reclaimed rows are published as the counters
+ * {@code editor.versions.compaction.versions.deleted} and
+ * {@code editor.versions.compaction.blobs.deleted}.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class VersionCompactionJob {
+
+    private final DocumentVersionRepository versionRepository;
+    private final MementoCaretaker caretaker;
+    private final ElementBlobStore blobStore;
+    private final VersionRetentionPolicy policy;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration blobGracePeriod;
+    private final Counter versionsDeleted;
+    private final Counter blobsDeleted;
+    private final Timer runTimer;
+
+    public VersionCompactionJob(DocumentVersionRepository versionRepository, MementoCaretaker caretaker,
+            ElementBlobStore blobStore, VersionRetentionPolicy policy, MeterRegistry meterRegistry,
+            @Value("${editor.versions.retention.enabled:true}") boolean enabled,
+            @Value("${editor.versions.retention.batch-size:100}") int batchSize,
+            @Value("${editor.versions.retention.blob-grace-period:1h}") Duration blobGracePeriod) {
+        this.versionRepository = versionRepository;
+        this.caretaker = caretaker;
+        this.blobStore = blobStore;
+        this.policy = policy;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.blobGracePeriod = blobGracePeriod;
+        this.versionsDeleted = Counter.builder("editor.versions.compaction.versions.deleted")
+                .description("Document versions removed by the retention policy")
+                .register(meterRegistry);
+        this.blobsDeleted = Counter.builder("editor.versions.compaction.blobs.deleted")
+                .description("Element blobs no longer referenced by any version")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("editor.versions.compaction.duration")
+                .description("Duration of version compaction runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${editor.versions.retention.initial-delay:PT5M}",
+            fixedDelayString = "${editor.versions.retention.interval:PT1H}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        runTimer.record(() -> {
+            LocalDateTime start = LocalDateTime.now();
+            int versions = thinVersions(start);
+            int blobs = sweepBlobs(start.minus(blobGracePeriod));
+            if (versions > 0 || blobs > 0) {
+                log.info("Version compaction removed {} versions and {} element blobs", versions, blobs);
+            }
+        });
+    }
+
+    private int thinVersions(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(policy.getKeepAllFor());
+        long maxCount = policy.getMaxPerDocument() > 0 ? policy.getMaxPerDocument() : Long.MAX_VALUE;
+
+        int total = 0;
+        String after = "";
+        List<String> documentIds;
+        do {
+            documentIds = versionRepository.findRetentionCandidates(after, cutoff, maxCount,
+                    PageRequest.of(0, batchSize));
+            for (String documentId : documentIds) {
+                try {
+                    int deleted = caretaker.applyRetention(documentId, policy, now);
+                    versionsDeleted.increment(deleted);
+                    total += deleted;
+                } catch (RuntimeException e) {
+                    log.warn("Version compaction failed for document {}", documentId, e);
+                }
+            }
+            if (!documentIds.isEmpty()) {
+                after = documentIds.get(documentIds.size() - 1);
+            }
+        } while (documentIds.size() == batchSize);
+        return total;
+    }
+
+    private int sweepBlobs(LocalDateTime idleBefore) {
+        if (!countLegacyVersions()) {
+            return 0; // an uncounted version may still reference any blob
+        }
+
+        int total = 0;
+        String afterHash = "";
+        List<String> unreferenced;
+        do {
+            unreferenced = blobStore.findUnreferencedHashes(afterHash, idleBefore, batchSize);
+            if (!unreferenced.isEmpty()) {
+                afterHash = unreferenced.get(unreferenced.size() - 1);
+            }
+            int deleted = blobStore.deleteUnreferenced(unreferenced, idleBefore);
+            blobsDeleted.increment(deleted);
+            total += deleted;
+        } while (unreferenced.size() == batchSize);
+        return total;
+    }
+
+    /**
+     * Counts the blob references of versions saved before blobs were reference
+     * counted, one version per transaction.
+     *
+     * @return true if every hashed version is now counted
+     */
+    private boolean countLegacyVersions() {
+        boolean complete = true;
+        long afterId = 0;
+        List<Long> versionIds;
+        do {
+            versionIds = versionRepository.findUncountedAfter(afterId, PageRequest.of(0, batchSize));
+            for (Long versionId : versionIds) {
+                try {
+                    caretaker.countBlobReferences(versionId);
+                } catch (RuntimeException e) {
+                    complete = false;
+                    log.warn("Counting the element blobs of version {} failed", versionId, e);
+                }
+                afterId = versionId;
+            }
+        } while (versionIds.size() == batchSize);
+        return complete;
+    }
+}
@@ -0,0 +1,120 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.dto.DocumentVersionStamp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which versions of a document are kept as they age.
+ *
+ * Versions younger than {@code keep-all-for} are all kept. Older ones are
+ * thinned to the newest version per hour until {@code hourly-for}, per day
+ * until {@code daily-for} and per week after that. Finally only the newest
+ * {@code max-per-document} survivors are kept (0 disables the cap). The
+ * newest version of a document is therefore never removed. Versions named
+ * by users are exempt when {@code keep-named} is set, so thinning and the
+ * cap then only apply to automatic versions.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+public class VersionRetentionPolicy {
+
+    private final Duration keepAllFor;
+    private final Duration hourlyFor;
+    private final Duration dailyFor;
+    private final int maxPerDocument;
+    private final boolean keepNamed;
+
+    public VersionRetentionPolicy(
+            @Value("${editor.versions.retention.keep-all-for:7d}") Duration keepAllFor,
+            @Value("${editor.versions.retention.hourly-for:30d}") Duration hourlyFor,
+            @Value("${editor.versions.retention.daily-for:180d}") Duration dailyFor,
+            @Value("${editor.versions.retention.max-per-document:500}") int maxPerDocument,
+            @Value("${editor.versions.retention.keep-named:true}") boolean keepNamed) {
+        this.keepAllFor = keepAllFor;
+        this.hourlyFor = hourlyFor;
+        this.dailyFor = dailyFor;
+        this.maxPerDocument = maxPerDocument;
+        this.keepNamed = keepNamed;
+    }
+
+    /**
+     * Gets the age after which versions start being thinned.
+     *
+     * @return keep-all period
+     */
+    public Duration getKeepAllFor() {
+        return keepAllFor;
+    }
+
+    /**
+     * Gets the maximum number of versions kept per document.
+     *
+     * @return cap, or 0 if unlimited
+     */
+    public int getMaxPerDocument() {
+        return maxPerDocument;
+    }
+
+    /**
+     * Selects the versions to remove.
+     *
+     * @param newestFirst versions of one document, newest first
+     * @param now         reference time
+     * @return IDs of the versions the policy does not retain
+     */
+    public List<Long> selectExpired(List<DocumentVersionStamp> newestFirst, LocalDateTime now) {
+        List<Long> expired = new ArrayList<>();
+        Set<String> keptBuckets = new HashSet<>();
+        int kept = 0;
+
+        for (DocumentVersionStamp version : newestFirst) {
+            if (keepNamed && !version.isAutomatic()) {
+                continue;
+            }
+            String bucket = bucketOf(version.getSnapshotTime(), now);
+            boolean keep = bucket == null || keptBuckets.add(bucket);
+            if (keep && maxPerDocument > 0 && kept >= maxPerDocument) {
+                keep = false;
+            }
+
+            if (keep) {
+                kept++;
+            } else {
+                expired.add(version.getId());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Gets the thinning bucket of a version, or null if it is young enough to keep as is.
+     */
+    private String bucketOf(LocalDateTime snapshotTime, LocalDateTime now) {
+        if (snapshotTime == null) {
+            return null;
+        }
+        Duration age = Duration.between(snapshotTime, now);
+        if (age.compareTo(keepAllFor) <= 0) {
+            return null;
+        }
+        if (age.compareTo(hourlyFor) <= 0) {
+            return "hour:" + snapshotTime.truncatedTo(ChronoUnit.HOURS);
+        }
+        if (age.compareTo(dailyFor) <= 0) {
+            return "day:" + snapshotTime.toLocalDate();
+        }
+        return "week:" + snapshotTime.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,210 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.module3.versioning.codec.SnapshotCompressor;
+import com.collaborativeeditor.repository.DocumentVersionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the entry list of a version either as a keyframe (the full list)
+ * or as a delta against the previous version of the same document. Entries
+ * are element hashes on current rows and whole elements on legacy rows; the
+ * encoding treats them alike.
+ *
+ * A delta is a JSON array of instructions that rebuild the list in order:
+ * {@code {"copy": i, "count": n}} takes n consecutive entries of the base
+ * list starting at index i, {@code {"insert": {...}}} adds an entry that
+ * the base does not contain. A keyframe is written every
+ * {@code editor.versions.keyframe-interval} versions, so rebuilding a version
+ * never reads more than that many rows. Payloads are stored compressed by
+ * {@link SnapshotCompressor}.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+public class VersionSnapshotStore {
+
+    private static final String COPY = "copy";
+    private static final String COUNT = "count";
+    private static final String INSERT = "insert";
+
+    private final DocumentVersionRepository versionRepository;
+    private final SnapshotCompressor compressor;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+    private final int keyframeInterval;
+
+    public VersionSnapshotStore(DocumentVersionRepository versionRepository, SnapshotCompressor compressor,
+            ObjectMapper objectMapper, @Value("${editor.versions.keyframe-interval:10}") int keyframeInterval) {
+        this.versionRepository = versionRepository;
+        this.compressor = compressor;
+        this.objectMapper = objectMapper;
+        // Snapshots are stored, not displayed; skip the pretty-printing configured for responses
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /**
+     * Stores an entry list into a new version, as a delta against the
+     * previous version when that is worthwhile.
+     *
+     * @param version          version being created
+     * @param entries          entries of the snapshot (elements or element hashes)
+     * @param previous         latest existing version in the same format, or null
+     * @param previousEntries  entries of {@code previous} as returned by {@link #read}
+     */
+    public void write(DocumentVersion version, ArrayNode entries, DocumentVersion previous,
+            ArrayNode previousEntries) {
+        String keyframe = toJson(entries);
+        if (previous == null || chainLength(previous) + 1 >= keyframeInterval) {
+            writeKeyframe(version, keyframe);
+            return;
+        }
+
+        String delta = toJson(diff(previousEntries, entries));
+        if (delta.length() >= keyframe.length()) {
+            writeKeyframe(version, keyframe);
+            return;
+        }
+        version.setBaseVersionId(previous.getId());
+        version.setChainLength(chainLength(previous) + 1);
+        version.setSnapshot(compressor.compress(delta));
+    }
+
+    /**
+     * Rewrites a version as a keyframe, e.g. before the version it is based on is deleted.
+     *
+     * @param version version to materialize
+     */
+    public void materialize(DocumentVersion version) {
+        if (version.getBaseVersionId() != null) {
+            writeKeyframe(version, toJson(read(version)));
+        }
+    }
+
+    /**
+     * Rebuilds the entry list of a version from its keyframe and deltas.
+     *
+     * @param version stored version
+     * @return entries of the snapshot
+     */
+    public ArrayNode read(DocumentVersion version) {
+        Deque<DocumentVersion> chain = new ArrayDeque<>();
+        DocumentVersion current = version;
+        while (current.getBaseVersionId() != null) {
+            chain.push(current);
+            Long baseId = current.getBaseVersionId();
+            current = versionRepository.findById(baseId)
+                    .orElseThrow(() -> new IllegalStateException("Missing base version " + baseId));
+        }
+
+        ArrayNode entries = (ArrayNode) parse(payload(current));
+        while (!chain.isEmpty()) {
+            entries = apply(entries, (ArrayNode) parse(payload(chain.pop())));
+        }
+        return entries;
+    }
+
+    /**
+     * Moves a batch of legacy rows from the uncompressed column to the
+     * compressed snapshot column. Their content and encoding are unchanged.
+     *
+     * @param batchSize maximum number of rows to convert
+     * @return number of rows converted
+     */
+    @Transactional
+    public int compressLegacySnapshots(int batchSize) {
+        List<DocumentVersion> legacy = versionRepository.findBySnapshotIsNullAndElementsJsonIsNotNull(
+                PageRequest.of(0, batchSize));
+        for (DocumentVersion version : legacy) {
+            version.setSnapshot(compressor.compress(version.getElementsJson()));
+        }
+        return legacy.size();
+    }
+
+    private ArrayNode diff(ArrayNode base, ArrayNode target) {
+        Map<JsonNode, Deque<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < base.size(); i++) {
+            positions.computeIfAbsent(base.get(i), node -> new ArrayDeque<>()).add(i);
+        }
+
+        ArrayNode delta = objectMapper.createArrayNode();
+        ObjectNode run = null;
+        for (JsonNode entry : target) {
+            Deque<Integer> candidates = positions.get(entry);
+            Integer index = candidates != null ? candidates.poll() : null;
+            if (index == null) {
+                delta.addObject().set(INSERT, entry);
+                run = null;
+            } else if (run != null && run.get(COPY).asInt() + run.get(COUNT).asInt() == index) {
+                run.put(COUNT, run.get(COUNT).asInt() + 1);
+            } else {
+                run = delta.addObject().put(COPY, index).put(COUNT, 1);
+            }
+        }
+        return delta;
+    }
+
+    private ArrayNode apply(ArrayNode base, ArrayNode delta) {
+        ArrayNode entries = objectMapper.createArrayNode();
+        for (JsonNode instruction : delta) {
+            if (instruction.has(INSERT)) {
+                entries.add(instruction.get(INSERT));
+            } else {
+                int start = instruction.get(COPY).asInt();
+                int count = instruction.get(COUNT).asInt();
+                for (int i = start; i < start + count; i++) {
+                    entries.add(base.get(i));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void writeKeyframe(DocumentVersion version, String json) {
+        version.setBaseVersionId(null);
+        version.setChainLength(0);
+        version.setSnapshot(compressor.compress(json));
+    }
+
+    private String payload(DocumentVersion version) {
+        return version.getSnapshot() != null
+                ? compressor.decompress(version.getSnapshot())
+                : version.getElementsJson();
+    }
+
+    private static int chainLength(DocumentVersion version) {
+        return version.getChainLength() != null ? version.getChainLength() : 0;
+    }
+
+    private JsonNode parse(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted version snapshot", e);
+        }
+    }
+
+    private String toJson(JsonNode node) {
+        try {
+            return compactWriter.writeValueAsString(node);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize version snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.collaborativeeditor.module4.collaboration.observer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Entry of a collaborator's notification inbox.
+ * 
+ * The inbox is append-only: rows are inserted when a document changes and
+ * are never updated, only purged once older than the configured TTL. Rows are
+ * read newest first, paging by ID.
+ * 
+ * @author Arch_Force Team
+ */
+@Entity
+@jakarta.persistence.Table(name = "collaborator_inbox", indexes = {
+        @Index(name = "idx_collaborator_inbox_collaborator", columnList = "collaboratorId, id"),
+        @Index(name = "idx_collaborator_inbox_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+public class CollaboratorNotification {
+
+    // Pooled sequence ids let a notification to every collaborator go out as one batched insert
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
+    private Long id;
+
+    /** ID of the {@link PersistentCollaborator} row the notification is addressed to. */
+    @Column(nullable = false)
+    private Long collaboratorId;
+
+    @Column(nullable = false)
+    private String documentId;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public CollaboratorNotification(Long collaboratorId, String documentId, String message,
+            LocalDateTime createdAt) {
+        this.collaboratorId = collaboratorId;
+        this.documentId = documentId;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+}
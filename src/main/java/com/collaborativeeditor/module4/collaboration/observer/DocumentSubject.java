@@ -1,8 +1,18 @@
 package com.collaborativeeditor.module4.collaboration.observer;
 
+import com.collaborativeeditor.event.outbox.DocumentOutbox;
+import com.collaborativeeditor.event.outbox.OutboxEventType;
+import com.collaborativeeditor.event.outbox.RemoteDocumentChange;
 import com.collaborativeeditor.repository.CollaboratorRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,13 +21,37 @@ import java.util.stream.Collectors;
  * Manages observers and notifies them of document changes using persistent
  * storage.
  * 
+ * The subscribers of recently notified documents are cached, so notifying
+ * does not query the collaborators table on every edit. {@link #attach} and
+ * {@link #detach} invalidate the document's entry and record the change in
+ * the {@link DocumentOutbox}, so other application nodes invalidate theirs;
+ * entries also expire after
+ * {@code editor.collaborators.cache.expire-after-write} as a safety net.
+ * 
  * @author Arch_Force Team
  */
 @Component
-@RequiredArgsConstructor
 public class DocumentSubject {
 
     private final CollaboratorRepository collaboratorRepository;
+    private final NotificationInbox notificationInbox;
+    private final DocumentOutbox outbox;
+    private final Cache<String, List<Subscriber>> subscribers;
+
+    public DocumentSubject(CollaboratorRepository collaboratorRepository, NotificationInbox notificationInbox,
+            DocumentOutbox outbox, MeterRegistry meterRegistry,
+            @Value("${editor.collaborators.cache.max-documents:10000}") long maxDocuments,
+            @Value("${editor.collaborators.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.collaboratorRepository = collaboratorRepository;
+        this.notificationInbox = notificationInbox;
+        this.outbox = outbox;
+        this.subscribers = Caffeine.newBuilder()
+                .maximumSize(maxDocuments)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, subscribers, "document-subscribers");
+    }
 
     /**
      * Attaches an observer to a document.
@@ -25,6 +59,7 @@ public class DocumentSubject {
      * @param documentId document ID
      * @param observer   observer to attach
      */
+    @Transactional
     public void attach(String documentId, DocumentObserver observer) {
         // Check if already exists to avoid duplicates (optional, strictly logic
         // dependent)
@@ -56,6 +91,8 @@ public class DocumentSubject {
         }
 
         collaboratorRepository.save(entity);
+        outbox.append(documentId, OutboxEventType.COLLABORATORS_CHANGED, null);
+        subscribers.invalidate(documentId);
     }
 
     /**
@@ -64,10 +101,14 @@ public class DocumentSubject {
      * @param documentId document ID
      * @param observer   observer to detach
      */
+    @Transactional
     public void detach(String documentId, DocumentObserver observer) {
         PersistentCollaborator entity = collaboratorRepository.findByObserverId(observer.getObserverId());
         if (entity != null) {
+            notificationInbox.clear(entity.getId());
             collaboratorRepository.delete(entity);
+            outbox.append(entity.getDocumentId(), OutboxEventType.COLLABORATORS_CHANGED, null);
+            subscribers.invalidate(entity.getDocumentId());
         }
     }
 
@@ -78,19 +119,22 @@ public class DocumentSubject {
      * @param message    notification message
      */
     public void notifyObservers(String documentId, String message) {
-        List<PersistentCollaborator> collaborators = collaboratorRepository.findByDocumentId(documentId);
-
-        // Batch update in memory
-        String timestamp = java.time.LocalDateTime.now().toString();
-        for (PersistentCollaborator entity : collaborators) {
-            entity.addNotification(
-                    String.format("Document %s: %s (at %s)", documentId, message, timestamp));
-        }
+        // Recipients come from the registry; one batched insert appends to every inbox
+        List<Long> collaboratorIds = subscribersOf(documentId).stream().map(Subscriber::id).toList();
+        notificationInbox.append(collaboratorIds, documentId, String.format("Document %s: %s", documentId, message));
+    }
 
-        // Single batch write
-        if (!collaborators.isEmpty()) {
-            collaboratorRepository.saveAll(collaborators);
-        }
+    /**
+     * Reads a page of a collaborator's notifications, newest first.
+     * 
+     * @param observerId observer ID of the collaborator
+     * @param beforeId   ID of the last notification already read, or null for the newest
+     * @param limit      page size
+     * @return notifications, or null if the collaborator does not exist
+     */
+    public List<CollaboratorNotification> getNotifications(String observerId, Long beforeId, int limit) {
+        PersistentCollaborator entity = collaboratorRepository.findByObserverId(observerId);
+        return entity != null ? notificationInbox.page(entity.getId(), beforeId, limit) : null;
     }
 
     /**
@@ -100,8 +144,8 @@ public class DocumentSubject {
      * @return list of observers
      */
     public List<DocumentObserver> getObservers(String documentId) {
-        return collaboratorRepository.findByDocumentId(documentId).stream()
-                .map(entity -> new Collaborator(entity.getObserverId(), entity.getName(), entity.getEmail()))
+        return subscribersOf(documentId).stream()
+                .map(subscriber -> new Collaborator(subscriber.observerId(), subscriber.name(), subscriber.email()))
                 .collect(Collectors.toList());
     }
 
@@ -112,6 +156,32 @@ public class DocumentSubject {
      * @return observer count
      */
     public int getObserverCount(String documentId) {
-        return collaboratorRepository.findByDocumentId(documentId).size();
+        List<Subscriber> cached = subscribers.getIfPresent(documentId);
+        return cached != null ? cached.size() : (int) collaboratorRepository.countByDocumentId(documentId);
+    }
+
+    /**
+     * Drops the cached subscribers of a document changed by another application node.
+     * 
+     * @param change change relayed from the outbox
+     */
+    @EventListener
+    public void onRemoteChange(RemoteDocumentChange change) {
+        if (change.eventType() != OutboxEventType.DOCUMENT_SAVED) {
+            subscribers.invalidate(change.documentId());
+        }
+    }
+
+    private List<Subscriber> subscribersOf(String documentId) {
+        return subscribers.get(documentId, id -> collaboratorRepository.findByDocumentId(id).stream()
+                .map(entity -> new Subscriber(entity.getId(), entity.getObserverId(), entity.getName(),
+                        entity.getEmail()))
+                .toList());
+    }
+
+    /**
+     * Cached view of a collaborator row: what notifying and listing need.
+     */
+    private record Subscriber(Long id, String observerId, String name, String email) {
     }
 }
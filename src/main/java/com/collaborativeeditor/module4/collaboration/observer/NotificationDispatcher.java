@@ -0,0 +1,217 @@
+package com.collaborativeeditor.module4.collaboration.observer;
+
+import com.collaborativeeditor.event.DocumentEvent;
+import com.collaborativeeditor.event.ElementMoved;
+import com.collaborativeeditor.event.ElementUpdated;
+import com.collaborativeeditor.event.VersionCreated;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers collaborator notifications off the request thread.
+ *
+ * Subscribes to committed {@link DocumentEvent}s. The first event for a
+ * document opens a batch that is flushed after
+ * {@code editor.notifications.dispatch.window}; events arriving in the
+ * meantime join the batch, so a burst of edits reaches the inboxes as a
+ * single notification, described when the batch is flushed. In-place element
+ * updates, moves and automatic versions are too frequent to notify about.
+ * Flushes run on a small dedicated pool, so edit latency does not depend on
+ * how many collaborators a document has.
+ *
+ * At most {@code editor.notifications.dispatch.max-pending-documents} batches
+ * are open at once. Beyond that, and after shutdown has started, the caller
+ * delivers its event itself: producers slow down instead of events being
+ * dropped. Open batches are flushed before the application stops.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    /** Coalesced messages are trimmed to fit the inbox message column, with room for the document prefix. */
+    private static final int MAX_SUMMARY_LENGTH = 900;
+
+    /** Events kept per batch; later ones are only counted. */
+    private static final int MAX_EVENTS_PER_BATCH = 100;
+
+    private final DocumentSubject documentSubject;
+    private final long windowMillis;
+    private final int maxPendingDocuments;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Counter callerDeliveries;
+
+    private final Map<String, PendingNotification> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NotificationDispatcher(DocumentSubject documentSubject, MeterRegistry meterRegistry,
+            @Value("${editor.notifications.dispatch.window:500ms}") Duration window,
+            @Value("${editor.notifications.dispatch.threads:2}") int threads,
+            @Value("${editor.notifications.dispatch.max-pending-documents:1000}") int maxPendingDocuments) {
+        this(documentSubject, meterRegistry, window, maxPendingDocuments, newExecutor(threads));
+    }
+
+    NotificationDispatcher(DocumentSubject documentSubject, MeterRegistry meterRegistry, Duration window,
+            int maxPendingDocuments, ScheduledThreadPoolExecutor executor) {
+        this.documentSubject = documentSubject;
+        this.windowMillis = window.toMillis();
+        this.maxPendingDocuments = Math.max(1, maxPendingDocuments);
+        this.executor = executor;
+
+        Gauge.builder("editor.notifications.pending.documents", pending, Map::size)
+                .description("Documents with notifications waiting for their coalescing window")
+                .register(meterRegistry);
+        this.callerDeliveries = Counter.builder("editor.notifications.caller.deliveries")
+                .description("Notifications delivered on the request thread because the dispatcher was full")
+                .register(meterRegistry);
+    }
+
+    private static ScheduledThreadPoolExecutor newExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // One delayed task per open batch, so the cap on open batches also bounds the queue
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "notifications-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Queues a notification about a committed event for the collaborators of
+     * its document.
+     *
+     * @param event document event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(DocumentEvent.NOTIFY_ORDER)
+    public void onDocumentEvent(DocumentEvent event) {
+        if (event instanceof ElementUpdated || event instanceof ElementMoved
+                || event instanceof VersionCreated version && version.automatic()) {
+            return;
+        }
+        dispatch(event);
+    }
+
+    /**
+     * Queues a notification for the collaborators of a document. Returns
+     * without touching the database unless the dispatcher is saturated.
+     *
+     * @param event event to notify about
+     */
+    public void dispatch(DocumentEvent event) {
+        String documentId = event.documentId();
+        boolean[] opened = new boolean[1];
+        PendingNotification batch = pending.compute(documentId, (id, current) -> {
+            if (current != null) {
+                current.add(event);
+                return current;
+            }
+            if (pending.size() >= maxPendingDocuments || executor.isShutdown()) {
+                return null;
+            }
+            opened[0] = true;
+            PendingNotification created = new PendingNotification();
+            created.add(event);
+            return created;
+        });
+
+        if (batch == null) {
+            callerDeliveries.increment();
+            deliver(documentId, event.describe());
+        } else if (opened[0]) {
+            try {
+                executor.schedule(() -> flush(documentId), windowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flush(documentId);
+            }
+        }
+    }
+
+    private void flush(String documentId) {
+        // Once removed, the batch no longer receives events; later ones open a new batch
+        PendingNotification batch = pending.remove(documentId);
+        if (batch != null) {
+            deliver(documentId, batch.summary());
+        }
+    }
+
+    private void deliver(String documentId, String message) {
+        try {
+            documentSubject.notifyObservers(documentId, message);
+        } catch (RuntimeException e) {
+            log.warn("Notifying collaborators of document {} failed", documentId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        // Windows still open are delayed tasks, which run after shutdown by default
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Notification dispatcher did not drain in time");
+        }
+        pending.keySet().forEach(this::flush);
+    }
+
+    /**
+     * Events of one document within a window. Only accessed inside
+     * {@code pending.compute} or after removal from {@code pending}.
+     */
+    private static final class PendingNotification {
+
+        private final List<DocumentEvent> events = new ArrayList<>();
+        private int overflow;
+
+        private void add(DocumentEvent event) {
+            if (events.size() < MAX_EVENTS_PER_BATCH) {
+                events.add(event);
+            } else {
+                overflow++;
+            }
+        }
+
+        private String summary() {
+            Map<String, Integer> messages = new LinkedHashMap<>();
+            events.forEach(event -> messages.merge(event.describe(), 1, Integer::sum));
+            if (overflow > 0) {
+                messages.put("and " + overflow + " more changes", 1);
+            }
+
+            StringBuilder summary = new StringBuilder();
+            messages.forEach((message, count) -> {
+                if (summary.length() > 0) {
+                    summary.append("; ");
+                }
+                summary.append(message);
+                if (count > 1) {
+                    summary.append(" (x").append(count).append(')');
+                }
+            });
+            return summary.length() <= MAX_SUMMARY_LENGTH
+                    ? summary.toString()
+                    : summary.substring(0, MAX_SUMMARY_LENGTH - 3) + "...";
+        }
+    }
+}
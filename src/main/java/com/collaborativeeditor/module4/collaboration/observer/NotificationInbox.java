@@ -0,0 +1,85 @@
+package com.collaborativeeditor.module4.collaboration.observer;
+
+import com.collaborativeeditor.repository.CollaboratorNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only store of collaborator notifications.
+ *
+ * Notifying a document's collaborators inserts one row per collaborator in a
+ * single batch; existing notifications are never loaded or rewritten, so the
+ * cost does not grow with the inbox. Inboxes are read newest first with the
+ * ID of the last row seen as cursor.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationInbox {
+
+    private final CollaboratorNotificationRepository notificationRepository;
+
+    /**
+     * Appends the same notification to several inboxes.
+     *
+     * @param collaboratorIds row IDs of the recipients
+     * @param documentId      document the notification is about
+     * @param message         notification message
+     */
+    @Transactional
+    public void append(Collection<Long> collaboratorIds, String documentId, String message) {
+        if (collaboratorIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.saveAll(collaboratorIds.stream()
+                .map(collaboratorId -> new CollaboratorNotification(collaboratorId, documentId, message, now))
+                .toList());
+    }
+
+    /**
+     * Reads a page of an inbox, newest first.
+     *
+     * @param collaboratorId row ID of the collaborator
+     * @param beforeId       ID of the last notification of the previous page, or null for the first page
+     * @param limit          page size
+     * @return notifications older than the cursor
+     */
+    public List<CollaboratorNotification> page(Long collaboratorId, Long beforeId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return beforeId == null
+                ? notificationRepository.findByCollaboratorIdOrderByIdDesc(collaboratorId, page)
+                : notificationRepository.findByCollaboratorIdAndIdLessThanOrderByIdDesc(collaboratorId, beforeId,
+                        page);
+    }
+
+    /**
+     * Deletes a batch of notifications created before a cutoff.
+     *
+     * @param cutoff    notifications created before this time are deleted
+     * @param batchSize maximum number of notifications to delete
+     * @return number of notifications deleted
+     */
+    @Transactional
+    public int purge(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = notificationRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : notificationRepository.deleteByIdIn(ids);
+    }
+
+    /**
+     * Deletes the whole inbox of a collaborator.
+     *
+     * @param collaboratorId row ID of the collaborator
+     */
+    @Transactional
+    public void clear(Long collaboratorId) {
+        notificationRepository.deleteByCollaboratorId(collaboratorId);
+    }
+}
@@ -0,0 +1,53 @@
+package com.collaborativeeditor.module4.collaboration.observer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Background job deleting collaborator notifications older than
+ * {@code editor.notifications.ttl}. Rows are deleted in small batches, each in
+ * its own transaction, so the job never holds long locks.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@Slf4j
+public class NotificationPurgeJob {
+
+    private final NotificationInbox inbox;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public NotificationPurgeJob(NotificationInbox inbox,
+            @Value("${editor.notifications.ttl:30d}") Duration ttl,
+            @Value("${editor.notifications.purge.batch-size:1000}") int batchSize,
+            @Value("${editor.notifications.purge.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.inbox = inbox;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${editor.notifications.purge.initial-delay:PT5M}",
+            fixedDelayString = "${editor.notifications.purge.interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int deleted = inbox.purge(cutoff, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} notifications created before {}", total, cutoff);
+        }
+    }
+}
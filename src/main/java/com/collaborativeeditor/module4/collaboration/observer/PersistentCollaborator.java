@@ -3,17 +3,19 @@ package com.collaborativeeditor.module4.collaboration.observer;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Persistent entity for a collaborator.
- * Stores observer state in the database.
+ * Stores observer state in the database; notifications live in the
+ * collaborator's {@link NotificationInbox}.
  * 
  * @author Arch_Force Team
  */
 @Entity
-@jakarta.persistence.Table(name = "collaborators")
+@jakarta.persistence.Table(name = "collaborators", indexes = {
+        @Index(name = "idx_collaborators_document", columnList = "documentId"),
+        @Index(name = "idx_collaborators_observer", columnList = "observerId")
+})
 @Data
 @NoArgsConstructor
 public class PersistentCollaborator {
@@ -34,19 +36,10 @@ public class PersistentCollaborator {
     @Column(nullable = false)
     private String documentId;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "collaborator_notifications", joinColumns = @JoinColumn(name = "collaborator_id"))
-    @Column(name = "message")
-    private List<String> notifications = new ArrayList<>();
-
     public PersistentCollaborator(String observerId, String name, String email, String documentId) {
         this.observerId = observerId;
         this.name = name;
         this.email = email;
         this.documentId = documentId;
     }
-
-    public void addNotification(String message) {
-        this.notifications.add(message);
-    }
 }
@@ -0,0 +1,51 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.module4.collaboration.observer.CollaboratorNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the append-only collaborator notification inbox.
+ */
+@Repository
+public interface CollaboratorNotificationRepository extends JpaRepository<CollaboratorNotification, Long> {
+
+    /**
+     * Lists the newest notifications of a collaborator, newest first.
+     */
+    List<CollaboratorNotification> findByCollaboratorIdOrderByIdDesc(Long collaboratorId, Pageable pageable);
+
+    /**
+     * Lists the notifications of a collaborator older than a cursor, newest first.
+     */
+    List<CollaboratorNotification> findByCollaboratorIdAndIdLessThanOrderByIdDesc(Long collaboratorId,
+            Long beforeId, Pageable pageable);
+
+    /**
+     * Finds the IDs of notifications created before a cutoff, oldest first.
+     */
+    @Query("select n.id from CollaboratorNotification n where n.createdAt < :cutoff order by n.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Deletes notifications by ID in a single statement.
+     */
+    @Modifying
+    @Query("delete from CollaboratorNotification n where n.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the whole inbox of a collaborator in a single statement.
+     */
+    @Modifying
+    @Query("delete from CollaboratorNotification n where n.collaboratorId = :collaboratorId")
+    int deleteByCollaboratorId(@Param("collaboratorId") Long collaboratorId);
+}
@@ -15,4 +15,9 @@ public interface CollaboratorRepository extends JpaRepository<PersistentCollabor
     List<PersistentCollaborator> findByDocumentId(String documentId);
 
     PersistentCollaborator findByObserverId(String observerId);
+
+    /**
+     * Counts a document's collaborators without loading them.
+     */
+    long countByDocumentId(String documentId);
 }
@@ -0,0 +1,45 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.module3.versioning.journal.DocumentChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the document change journal.
+ */
+@Repository
+public interface DocumentChangeRepository extends JpaRepository<DocumentChange, Long> {
+
+    /**
+     * Finds all changes of a document newer than a version, in the order they
+     * were recorded.
+     */
+    List<DocumentChange> findByDocumentIdAndDocumentVersionGreaterThanOrderByIdAsc(String documentId,
+            Long documentVersion);
+
+    /**
+     * Finds the oldest document version still present in the journal.
+     */
+    @Query("select min(c.documentVersion) from DocumentChange c where c.documentId = :documentId")
+    Optional<Long> findOldestVersion(@Param("documentId") String documentId);
+
+    /**
+     * Deletes journal entries of a document older than a version.
+     */
+    @Modifying
+    @Query("delete from DocumentChange c where c.documentId = :documentId and c.documentVersion < :version")
+    int deleteOlderThan(@Param("documentId") String documentId, @Param("version") Long version);
+
+    /**
+     * Deletes the whole journal of a document.
+     */
+    @Modifying
+    @Query("delete from DocumentChange c where c.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") String documentId);
+}
@@ -0,0 +1,64 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.module3.versioning.command.DocumentOperation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the per-document operation log.
+ */
+@Repository
+public interface DocumentOperationRepository extends JpaRepository<DocumentOperation, Long> {
+
+    /**
+     * Lists the newest operations of a document, newest first.
+     */
+    List<DocumentOperation> findByDocumentIdOrderByIdDesc(String documentId, Pageable pageable);
+
+    /**
+     * Finds the operation an undo reverts: the newest one still applied.
+     */
+    Optional<DocumentOperation> findFirstByDocumentIdAndUndoneFalseOrderByIdDesc(String documentId);
+
+    /**
+     * Finds the operation a redo reapplies: the oldest undone one.
+     */
+    Optional<DocumentOperation> findFirstByDocumentIdAndUndoneTrueOrderByIdAsc(String documentId);
+
+    /**
+     * Discards the undone operations of a document, which a new command makes unreachable.
+     */
+    @Modifying
+    @Query("delete from DocumentOperation o where o.documentId = :documentId and o.undone = true")
+    int deleteUndone(@Param("documentId") String documentId);
+
+    /**
+     * Points the operations of a document at the row that now holds one of its elements.
+     */
+    @Modifying
+    @Query("update DocumentOperation o set o.elementId = :newId "
+            + "where o.documentId = :documentId and o.elementId = :oldId")
+    int renameElement(@Param("documentId") String documentId, @Param("oldId") Long oldId,
+            @Param("newId") Long newId);
+
+    /**
+     * Deletes the operations of a document up to and including an ID.
+     */
+    @Modifying
+    @Query("delete from DocumentOperation o where o.documentId = :documentId and o.id <= :id")
+    int deleteUpTo(@Param("documentId") String documentId, @Param("id") Long id);
+
+    /**
+     * Deletes the whole operation log of a document.
+     */
+    @Modifying
+    @Query("delete from DocumentOperation o where o.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") String documentId);
+}
@@ -0,0 +1,45 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.event.outbox.OutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the document outbox shared by all application nodes.
+ */
+@Repository
+public interface DocumentOutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    /**
+     * Lists entries after an ID, oldest first.
+     */
+    List<OutboxEntry> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Finds the ID of the newest entry.
+     */
+    @Query("select max(e.id) from OutboxEntry e")
+    Optional<Long> findMaxId();
+
+    /**
+     * Finds the IDs of entries created before a cutoff, oldest first.
+     */
+    @Query("select e.id from OutboxEntry e where e.createdAt < :cutoff order by e.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Deletes entries by ID in a single statement.
+     */
+    @Modifying
+    @Query("delete from OutboxEntry e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,17 @@
 package com.collaborativeeditor.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import com.collaborativeeditor.dto.DocumentSummary;
+import com.collaborativeeditor.dto.DocumentVersionInfo;
 import com.collaborativeeditor.module1.creation.model.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,13 +22,65 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, String> {
 
+    /** Summary select shared by the listing queries; size() is a count subquery, elements are not loaded. */
+    String SUMMARY_SELECT = "select new com.collaborativeeditor.dto.DocumentSummary("
+            + "d.id, d.title, d.author, d.lastModified, size(d.elements)) "
+            + "from Document d where d.deleted = :deleted ";
+
+    /**
+     * Lists the first page of documents, most recently modified first.
+     * Pass the deleted flag to list either active documents or the recycle bin.
+     */
+    @Query(SUMMARY_SELECT + "order by d.lastModified desc, d.id desc")
+    List<DocumentSummary> findSummariesNewestFirst(@Param("deleted") boolean deleted, Pageable page);
+
+    /**
+     * Lists the documents that come after a keyset cursor, most recently modified first.
+     */
+    @Query(SUMMARY_SELECT
+            + "and (d.lastModified < :lastModified or (d.lastModified = :lastModified and d.id < :id)) "
+            + "order by d.lastModified desc, d.id desc")
+    List<DocumentSummary> findSummariesNewestFirstAfter(@Param("deleted") boolean deleted,
+            @Param("lastModified") LocalDateTime lastModified, @Param("id") String id, Pageable page);
+
+    /**
+     * Lists the first page of documents, least recently modified first.
+     */
+    @Query(SUMMARY_SELECT + "order by d.lastModified asc, d.id asc")
+    List<DocumentSummary> findSummariesOldestFirst(@Param("deleted") boolean deleted, Pageable page);
+
+    /**
+     * Lists the documents that come after a keyset cursor, least recently modified first.
+     */
+    @Query(SUMMARY_SELECT
+            + "and (d.lastModified > :lastModified or (d.lastModified = :lastModified and d.id > :id)) "
+            + "order by d.lastModified asc, d.id asc")
+    List<DocumentSummary> findSummariesOldestFirstAfter(@Param("deleted") boolean deleted,
+            @Param("lastModified") LocalDateTime lastModified, @Param("id") String id, Pageable page);
+
+    /**
+     * Loads a document together with its elements in a single query.
+     * The elements' own collections and decorator chains are then loaded in
+     * batches (see {@code @BatchSize}/{@code @Fetch} on the element classes),
+     * so the number of queries does not grow with the number of elements.
+     */
+    @EntityGraph(attributePaths = "elements")
+    Optional<Document> findWithElementsById(String id);
+
+    /**
+     * Reads only the optimistic-lock version of a document, without loading
+     * the entity or its elements.
+     */
+    @Query("select d.version from Document d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
     /**
-     * Finds all documents that are not in the recycle bin.
+     * Reads the id, version and last modification time of a document.
      */
-    List<Document> findByDeletedFalse();
+    Optional<DocumentVersionInfo> findVersionInfoById(String id);
 
     /**
-     * Finds all documents that are in the recycle bin.
+     * Reads the id, version and last modification time of several documents.
      */
-    List<Document> findByDeletedTrue();
+    List<DocumentVersionInfo> findVersionInfoByIdIn(Collection<String> ids);
 }
@@ -1,9 +1,18 @@
 package com.collaborativeeditor.repository;
 
+import com.collaborativeeditor.dto.DocumentVersionStamp;
+import com.collaborativeeditor.dto.DocumentVersionSummary;
 import com.collaborativeeditor.module3.versioning.memento.DocumentVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +27,87 @@ public interface DocumentVersionRepository extends JpaRepository<DocumentVersion
      */
     List<DocumentVersion> findByDocumentIdOrderBySnapshotTimeDesc(String documentId);
 
+    /**
+     * Lists version metadata for a document. Only the projected columns are
+     * selected; the snapshot JSON is never read.
+     */
+    Slice<DocumentVersionSummary> findSummariesByDocumentId(String documentId, Pageable pageable);
+
     /**
      * Finds a specific version of a document.
      */
     Optional<DocumentVersion> findByDocumentIdAndVersion(String documentId, String version);
+
+    /**
+     * Finds the most recently created version of a document.
+     */
+    Optional<DocumentVersion> findFirstByDocumentIdOrderByIdDesc(String documentId);
+
+    /**
+     * Finds the versions stored as deltas against the given version.
+     */
+    List<DocumentVersion> findByBaseVersionId(Long baseVersionId);
+
+    /**
+     * Finds versions whose snapshot is still stored uncompressed.
+     */
+    List<DocumentVersion> findBySnapshotIsNullAndElementsJsonIsNotNull(Pageable pageable);
+
+    /**
+     * Finds the versions stored as deltas against any of the given versions.
+     */
+    List<DocumentVersion> findByBaseVersionIdIn(Collection<Long> baseVersionIds);
+
+    /**
+     * Lists the ID and time of every version of a document, newest first.
+     */
+    List<DocumentVersionStamp> findStampsByDocumentIdOrderBySnapshotTimeDescIdDesc(String documentId);
+
+    /**
+     * Finds documents that retention may thin: those with versions older than
+     * the cutoff or with more versions than allowed. Ordered by ID so callers
+     * can page with {@code afterDocumentId}.
+     */
+    @Query("select v.documentId from DocumentVersion v where v.documentId > :afterDocumentId "
+            + "group by v.documentId having min(v.snapshotTime) < :cutoff or count(v) > :maxCount "
+            + "order by v.documentId")
+    List<String> findRetentionCandidates(@Param("afterDocumentId") String afterDocumentId,
+            @Param("cutoff") LocalDateTime cutoff, @Param("maxCount") long maxCount, Pageable pageable);
+
+    /**
+     * Finds hashed versions not yet included in the blob reference counts, in ID
+     * order starting after {@code afterId}.
+     */
+    @Query("select v.id from DocumentVersion v where v.snapshotFormat = 1 and v.blobsCounted = false "
+            + "and v.id > :afterId order by v.id")
+    List<Long> findUncountedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Flags a version as included in the blob reference counts.
+     *
+     * @return 1 if this call flagged it, 0 if it already was or no longer exists
+     */
+    @Modifying
+    @Query("update DocumentVersion v set v.blobsCounted = true where v.id = :id and v.blobsCounted = false")
+    int markBlobsCounted(@Param("id") Long id);
+
+    /**
+     * Finds the versions of a document that hold blob references.
+     */
+    @Query("select v from DocumentVersion v where v.documentId = :documentId and v.blobsCounted = true")
+    List<DocumentVersion> findCountedByDocumentId(@Param("documentId") String documentId);
+
+    /**
+     * Deletes versions by ID in a single statement.
+     */
+    @Modifying
+    @Query("delete from DocumentVersion v where v.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes every version of a document in a single statement.
+     */
+    @Modifying
+    @Query("delete from DocumentVersion v where v.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") String documentId);
 }
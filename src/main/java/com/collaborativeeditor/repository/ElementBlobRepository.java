@@ -0,0 +1,76 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.module3.versioning.memento.ElementBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the content-addressed element store.
+ */
+@Repository
+public interface ElementBlobRepository extends JpaRepository<ElementBlob, String> {
+
+    /**
+     * Returns which of the given hashes are already stored.
+     */
+    @Query("select b.hash from ElementBlob b where b.hash in :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Stores a blob unless one with the same hash exists. Identical content
+     * always hashes the same, so a concurrent insert of the same blob is harmless.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO element_blobs (hash, data, created_at, ref_count) "
+            + "VALUES (:hash, :data, :createdAt, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("data") byte[] data,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Finds blobs whose element JSON is still stored uncompressed.
+     */
+    List<ElementBlob> findByDataIsNull(Pageable pageable);
+
+    /**
+     * Records that stored blobs were referenced again by a new snapshot, so a
+     * sweep that started earlier does not delete them.
+     *
+     * @return number of blobs found, which is less than the number of hashes
+     *         when some are not stored
+     */
+    @Modifying
+    @Query("update ElementBlob b set b.lastReferencedAt = :now where b.hash in :hashes")
+    int markReferenced(@Param("hashes") Collection<String> hashes, @Param("now") LocalDateTime now);
+
+    /**
+     * Adds to the reference counts of the given blobs.
+     */
+    @Modifying
+    @Query("update ElementBlob b set b.refCount = b.refCount + :delta where b.hash in :hashes")
+    int adjustReferences(@Param("hashes") Collection<String> hashes, @Param("delta") int delta);
+
+    /**
+     * Lists blobs no version references and no snapshot referenced since {@code before},
+     * in hash order starting after {@code afterHash}.
+     */
+    @Query("select b.hash from ElementBlob b where b.refCount = 0 and b.hash > :afterHash "
+            + "and coalesce(b.lastReferencedAt, b.createdAt) < :before order by b.hash")
+    List<String> findUnreferencedHashes(@Param("afterHash") String afterHash,
+            @Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Deletes the given blobs in a single statement, skipping any referenced again since they were listed.
+     */
+    @Modifying
+    @Query("delete from ElementBlob b where b.hash in :hashes and b.refCount = 0 "
+            + "and coalesce(b.lastReferencedAt, b.createdAt) < :before")
+    int deleteUnreferenced(@Param("hashes") Collection<String> hashes, @Param("before") LocalDateTime before);
+}
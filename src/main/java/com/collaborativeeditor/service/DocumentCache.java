@@ -0,0 +1,158 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.event.outbox.RemoteDocumentChange;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import com.collaborativeeditor.module2.structure.decorator.StyleDecorator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-process cache of recently read documents.
+ *
+ * Entries are evicted by size and idle time. A hit is served directly while
+ * it was validated within the revalidation window; after that the caller
+ * must confirm it against the document's current {@code @Version}.
+ * Hit/miss/eviction counters are published as the "documents" cache metrics.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+public class DocumentCache {
+
+    private final Cache<String, Entry> cache;
+    /** Last version committed through this node, used to reject stale concurrent loads. */
+    private final Cache<String, Long> committedVersions;
+    private final long revalidateAfterNanos;
+
+    public DocumentCache(MeterRegistry meterRegistry,
+            @Value("${editor.cache.documents.max-size:500}") long maxSize,
+            @Value("${editor.cache.documents.expire-after-access:30m}") Duration expireAfterAccess,
+            @Value("${editor.cache.documents.revalidate-after:2s}") Duration revalidateAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        this.committedVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documents");
+    }
+
+    /**
+     * Gets a cached document.
+     *
+     * @param id document ID
+     * @return cached entry or null on a miss
+     */
+    public Entry get(String id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Caches a document loaded from the database. The element graph is fully
+     * initialized first so the cached copy can be used outside its session.
+     *
+     * @param document freshly loaded document
+     */
+    public void put(Document document) {
+        Long committed = committedVersions.getIfPresent(document.getId());
+        if (committed != null && document.getVersion() != null && document.getVersion() < committed) {
+            // Loaded concurrently with a save and already outdated; don't let it shadow the new version
+            return;
+        }
+        for (Element element : document.getElements()) {
+            unproxyDecorators(element);
+        }
+        cache.put(document.getId(), new Entry(document, System.nanoTime()));
+    }
+
+    /**
+     * Removes a document that was just saved, remembering the committed version
+     * so that a load racing with the save cannot re-cache the old state.
+     *
+     * @param document saved document
+     */
+    public void invalidate(Document document) {
+        invalidate(document.getId(), document.getVersion());
+    }
+
+    /**
+     * Removes a document changed by another application node.
+     *
+     * @param change change relayed from the outbox
+     */
+    @EventListener
+    public void onRemoteChange(RemoteDocumentChange change) {
+        invalidate(change.documentId(), change.documentVersion());
+    }
+
+    private void invalidate(String id, Long committedVersion) {
+        if (committedVersion != null) {
+            committedVersions.asMap().merge(id, committedVersion, Math::max);
+        }
+        cache.invalidate(id);
+    }
+
+    /**
+     * Removes a document from the cache.
+     *
+     * @param id document ID
+     */
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    private void unproxyDecorators(Element element) {
+        Element current = element;
+        while (current instanceof StyleDecorator decorator && decorator.getWrappedElement() != null) {
+            Element wrapped = (Element) Hibernate.unproxy(decorator.getWrappedElement());
+            decorator.setWrappedElement(wrapped);
+            current = wrapped;
+        }
+    }
+
+    /**
+     * Cached document together with the time it was last confirmed current.
+     */
+    public final class Entry {
+
+        private final Document document;
+        private volatile long validatedAt;
+
+        private Entry(Document document, long validatedAt) {
+            this.document = document;
+            this.validatedAt = validatedAt;
+        }
+
+        public Document getDocument() {
+            return document;
+        }
+
+        /**
+         * Whether this entry was validated recently enough to be served without
+         * checking the database version.
+         */
+        public boolean isFresh() {
+            return System.nanoTime() - validatedAt < revalidateAfterNanos;
+        }
+
+        /**
+         * Records that the entry was just confirmed to match the database.
+         */
+        public void markValidated() {
+            validatedAt = System.nanoTime();
+        }
+    }
+}
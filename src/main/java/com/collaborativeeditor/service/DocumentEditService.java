@@ -0,0 +1,375 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.dto.AddElementRequest;
+import com.collaborativeeditor.dto.ApplyStyleRequest;
+import com.collaborativeeditor.dto.DeleteElementRequest;
+import com.collaborativeeditor.dto.MoveElementRequest;
+import com.collaborativeeditor.dto.UpdateElementRequest;
+import com.collaborativeeditor.event.DocumentReplaced;
+import com.collaborativeeditor.event.ElementAdded;
+import com.collaborativeeditor.event.ElementMoved;
+import com.collaborativeeditor.event.ElementRemoved;
+import com.collaborativeeditor.event.ElementUpdated;
+import com.collaborativeeditor.event.StyleApplied;
+import com.collaborativeeditor.module1.creation.model.*;
+import com.collaborativeeditor.module2.structure.decorator.BoldDecorator;
+import com.collaborativeeditor.module2.structure.decorator.ColorDecorator;
+import com.collaborativeeditor.module2.structure.decorator.ItalicDecorator;
+import com.collaborativeeditor.module2.structure.decorator.SizeDecorator;
+import com.collaborativeeditor.module3.versioning.command.AddElementCommand;
+import com.collaborativeeditor.module3.versioning.command.Command;
+import com.collaborativeeditor.module3.versioning.command.CommandInvoker;
+import com.collaborativeeditor.module3.versioning.command.MoveElementCommand;
+import com.collaborativeeditor.module3.versioning.command.OperationType;
+import com.collaborativeeditor.module3.versioning.command.RemoveElementCommand;
+import com.collaborativeeditor.module3.versioning.command.ReplaceElementCommand;
+import com.collaborativeeditor.module3.versioning.command.UpdateElementCommand;
+import com.collaborativeeditor.module3.versioning.memento.DocumentMemento;
+import com.collaborativeeditor.module3.versioning.memento.DocumentOriginator;
+import com.collaborativeeditor.module3.versioning.memento.MementoCaretaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies edits to the content of documents. Both the REST controllers and
+ * the WebSocket rooms go through this service, so an edit behaves the same
+ * whichever channel it arrives on.
+ *
+ * Each edit loads the document, changes it, saves it and publishes the
+ * matching document event in one transaction, so the change journal commits
+ * with the change. Requests are expected to have passed bean validation;
+ * checks that depend on the document are made here.
+ *
+ * @author Arch_Force Team
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentEditService {
+
+    private final DocumentService documentService;
+    private final CommandInvoker commandInvoker;
+    private final MementoCaretaker mementoCaretaker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Adds an element created by the Factory Method pattern to the end of a
+     * document. The addition is recorded in the operation log so it can be
+     * undone.
+     *
+     * @param request element addition request
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult addElement(AddElementRequest request) {
+        Document document = documentService.getDocumentForUpdate(request.getDocumentId());
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        Element element = mapRawDataToElement(request.getElementType(), request.getElementData());
+        commandInvoker.executeCommand(document, new AddElementCommand(document, element));
+
+        // Saving merges the new element into the managed list; publish the persisted copy
+        int position = document.getElements().size() - 1;
+        eventPublisher.publishEvent(new ElementAdded(document, document.getElements().get(position), position));
+        return EditResult.applied("Element added successfully", document);
+    }
+
+    /**
+     * Updates the content of an element in place. The update is recorded in
+     * the operation log so it can be undone.
+     *
+     * @param request element update request
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult updateElement(UpdateElementRequest request) {
+        Document document = documentService.getDocumentForUpdate(request.getDocumentId());
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        int position = indexOfElement(document, request.getElementId());
+        if (position < 0) {
+            return EditResult.notFound("Element not found");
+        }
+
+        commandInvoker.executeCommand(document,
+                new UpdateElementCommand(document, position, request.getElementData()));
+        eventPublisher.publishEvent(new ElementUpdated(document, document.getElements().get(position), position));
+        return EditResult.applied("Element updated successfully", document);
+    }
+
+    /**
+     * Deletes an element. The removal is recorded in the operation log so it
+     * can be undone.
+     *
+     * @param request element deletion request
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult deleteElement(DeleteElementRequest request) {
+        Document document = documentService.getDocumentForUpdate(request.getDocumentId());
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        int position = indexOfElement(document, request.getElementId());
+        if (position < 0) {
+            return EditResult.notFound("Element not found");
+        }
+
+        commandInvoker.executeCommand(document, new RemoveElementCommand(document, position));
+        eventPublisher.publishEvent(new ElementRemoved(document, request.getElementId(), position));
+        return EditResult.applied("Element deleted successfully", document);
+    }
+
+    /**
+     * Moves an element to another position. Only the moved element's order
+     * key is rewritten. The move is recorded in the operation log so it can
+     * be undone.
+     *
+     * @param request move request
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult moveElement(MoveElementRequest request) {
+        Document document = documentService.getDocumentForUpdate(request.getDocumentId());
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        int position = indexOfElement(document, request.getElementId());
+        if (position < 0) {
+            return EditResult.notFound("Element not found");
+        }
+
+        int target = Math.min(request.getToIndex(), document.getElements().size() - 1);
+        if (target == position) {
+            return EditResult.unchanged("Element already in place", document);
+        }
+
+        commandInvoker.executeCommand(document, new MoveElementCommand(document, position, target));
+        eventPublisher.publishEvent(new ElementMoved(document, document.getElements().get(target), target));
+        return EditResult.applied("Element moved successfully", document);
+    }
+
+    /**
+     * Applies styles to an element using the Decorator pattern. The styled
+     * element replaces the original at the same index; the replacement is
+     * recorded in the operation log so it can be undone.
+     *
+     * @param request style application request
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult applyStyles(ApplyStyleRequest request) {
+        Document document = documentService.getDocumentForUpdate(request.getDocumentId());
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        int index = request.getElementIndex();
+        if (index < 0 || index >= document.getElements().size()) {
+            return EditResult.invalid("Invalid element index", document);
+        }
+
+        Element element = document.getElements().get(index);
+        String description = "Apply styles: " + String.join(", ", request.getStyles());
+        commandInvoker.executeCommand(document, new ReplaceElementCommand(document, index,
+                applyDecorators(element, request.getStyles()), description));
+
+        eventPublisher.publishEvent(new StyleApplied(document, element.getId(),
+                document.getElements().get(index), index, request.getStyles()));
+        return EditResult.applied("Styles applied successfully", document);
+    }
+
+    /**
+     * Undoes the last applied operation of a document's operation log.
+     *
+     * @param documentId document ID
+     * @return outcome of the edit; unchanged if there was nothing to undo
+     */
+    @Transactional
+    public EditResult undo(String documentId) {
+        Document document = documentService.getDocumentForUpdate(documentId);
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+        Command command = commandInvoker.undo(document);
+        if (command == null) {
+            return EditResult.unchanged("Nothing to undo", document);
+        }
+        publishHistoryChange(document, command, "Undo");
+        return EditResult.applied("Undo successful", document);
+    }
+
+    /**
+     * Redoes the last undone operation of a document's operation log.
+     *
+     * @param documentId document ID
+     * @return outcome of the edit; unchanged if there was nothing to redo
+     */
+    @Transactional
+    public EditResult redo(String documentId) {
+        Document document = documentService.getDocumentForUpdate(documentId);
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+        Command command = commandInvoker.redo(document);
+        if (command == null) {
+            return EditResult.unchanged("Nothing to redo", document);
+        }
+        publishHistoryChange(document, command, "Redo");
+        return EditResult.applied("Redo successful", document);
+    }
+
+    /**
+     * Restores a document to a saved version using the Memento pattern.
+     *
+     * @param documentId document ID
+     * @param version    name of the version to restore
+     * @return outcome of the edit
+     */
+    @Transactional
+    public EditResult restoreVersion(String documentId, String version) {
+        Document document = documentService.getDocumentForUpdate(documentId);
+        if (document == null) {
+            return EditResult.notFound("Document not found");
+        }
+
+        DocumentMemento memento = mementoCaretaker.getMemento(documentId, version);
+        if (memento == null) {
+            return EditResult.notFound("Version not found");
+        }
+
+        new DocumentOriginator(document).restoreFromMemento(memento);
+        documentService.saveDocument(document);
+        eventPublisher.publishEvent(new DocumentReplaced(document, "Version restored: " + version));
+        return EditResult.applied("Version restored successfully", document);
+    }
+
+    /**
+     * Publishes the change made by undo or redo. Updates were applied in place,
+     * so only the element changed; anything else may have inserted, removed or
+     * replaced rows.
+     */
+    private void publishHistoryChange(Document document, Command command, String reason) {
+        if (command.getOperationType() == OperationType.UPDATE_ELEMENT) {
+            int position = command.getPosition();
+            eventPublisher.publishEvent(new ElementUpdated(document, document.getElements().get(position), position));
+        } else {
+            eventPublisher.publishEvent(new DocumentReplaced(document, reason));
+        }
+    }
+
+    private int indexOfElement(Document document, Long elementId) {
+        List<Element> elements = document.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i).getId().equals(elementId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Applies multiple decorators to an element.
+     * Demonstrates the Decorator pattern's ability to stack behaviors.
+     *
+     * @param element base element
+     * @param styles  list of styles to apply
+     * @return decorated element
+     */
+    private Element applyDecorators(Element element, List<String> styles) {
+        Element result = element;
+
+        for (String style : styles) {
+            result = switch (style.toLowerCase()) {
+                case "bold" -> new BoldDecorator(result);
+                case "italic" -> new ItalicDecorator(result);
+                default -> {
+                    if (style.startsWith("color:")) {
+                        String color = style.substring(6);
+                        yield new ColorDecorator(result, color);
+                    } else if (style.startsWith("size:")) {
+                        String size = style.substring(5);
+                        yield new SizeDecorator(result, size);
+                    }
+                    yield result;
+                }
+            };
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates an element using the appropriate factory (Factory Method pattern).
+     *
+     * @param type type of element
+     * @param data element configuration data
+     * @return created element
+     */
+    private Element mapRawDataToElement(String type, Map<String, Object> data) {
+        switch (type.toLowerCase()) {
+            case "paragraph":
+                Paragraph p = new Paragraph();
+                if (data.containsKey("content")) {
+                    p.setContent((String) data.get("content"));
+                }
+                return p;
+            case "heading":
+                Heading h = new Heading();
+                if (data.containsKey("content")) {
+                    h.setContent((String) data.get("content"));
+                }
+                if (data.containsKey("level")) {
+                    Object levelObj = data.get("level");
+                    h.setLevel(levelObj instanceof Integer ? (Integer) levelObj
+                            : Integer.parseInt(levelObj.toString()));
+                } else {
+                    h.setLevel(1);
+                }
+                return h;
+            case "image":
+                Image i = new Image();
+                if (data.containsKey("url")) {
+                    i.setUrl((String) data.get("url"));
+                }
+                if (data.containsKey("altText")) {
+                    i.setAltText((String) data.get("altText"));
+                }
+                return i;
+            case "list":
+                ListElement l = new ListElement();
+                if (data.containsKey("items")) {
+                    @SuppressWarnings("unchecked")
+                    List<String> items = (List<String>) data.get("items");
+                    l.setItems(items);
+                }
+                if (data.containsKey("ordered")) {
+                    l.setOrdered((Boolean) data.getOrDefault("ordered", false));
+                }
+                return l;
+            case "code":
+                CodeBlock c = new CodeBlock();
+                if (data.containsKey("content"))
+                    c.setContent((String) data.get("content"));
+                if (data.containsKey("language"))
+                    c.setLanguage((String) data.get("language"));
+                return c;
+            default:
+                Paragraph fallback = new Paragraph();
+                if (data.containsKey("content")) {
+                    fallback.setContent((String) data.get("content"));
+                }
+                return fallback;
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.collaborativeeditor.service;
 
+import com.collaborativeeditor.dto.DocumentSummary;
+import com.collaborativeeditor.dto.DocumentSummaryPage;
+import com.collaborativeeditor.dto.DocumentVersionInfo;
+import com.collaborativeeditor.event.outbox.DocumentOutbox;
+import com.collaborativeeditor.event.outbox.OutboxEventType;
 import com.collaborativeeditor.module1.creation.model.Document;
 import com.collaborativeeditor.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Service for managing document storage using MariaDB.
+ * Reads go through a {@link DocumentCache} of hot documents; every write path
+ * invalidates the affected entry, and records the change in the
+ * {@link DocumentOutbox} so other application nodes invalidate theirs.
  * 
  * @author Arch_Force Team
  */
@@ -16,48 +34,164 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DocumentService {
 
+    /** Largest page served by {@link #listDocuments}. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char CURSOR_SEPARATOR = '|';
+
     private final DocumentRepository documentRepository;
+    private final DocumentCache documentCache;
+    private final DocumentOutbox outbox;
 
     /**
-     * Saves a document.
+     * Saves a document. The order keys of its elements are brought in line
+     * with the element list first, so only reordered rows are rewritten.
      * 
      * @param document document to save
      */
+    @Transactional
     public void saveDocument(Document document) {
-        documentRepository.save(document);
+        document.assignOrderKeys();
+        // Flushed so the outbox entry carries the version this save produces
+        documentRepository.saveAndFlush(document);
+        outbox.append(document.getId(), OutboxEventType.DOCUMENT_SAVED, document.getVersion());
+        documentCache.invalidate(document);
     }
 
     /**
-     * Gets a document by ID.
+     * Gets a document by ID for reading.
+     * 
+     * The returned instance may be shared with other requests through the cache
+     * and must not be modified; use {@link #getDocumentForUpdate(String)} before
+     * changing a document.
      * 
      * @param id document ID
      * @return document or null if not found
      */
+    @Transactional
     public Document getDocument(String id) {
-        return documentRepository.findById(id).orElse(null);
+        DocumentCache.Entry cached = documentCache.get(id);
+        if (cached != null) {
+            if (cached.isFresh()) {
+                return cached.getDocument();
+            }
+            Long currentVersion = documentRepository.findVersionById(id).orElse(null);
+            if (currentVersion != null && currentVersion.equals(cached.getDocument().getVersion())) {
+                cached.markValidated();
+                return cached.getDocument();
+            }
+            documentCache.invalidate(id);
+        }
+
+        Document document = documentRepository.findWithElementsById(id).orElse(null);
+        if (document != null) {
+            documentCache.put(document);
+        }
+        return document;
     }
 
     /**
-     * Gets all documents.
+     * Gets a document by ID straight from the database so it can be modified
+     * and saved.
      * 
-     * @return list of all documents
+     * @param id document ID
+     * @return document or null if not found
      */
+    public Document getDocumentForUpdate(String id) {
+        return documentRepository.findWithElementsById(id).orElse(null);
+    }
+
     /**
-     * Gets all active documents (not in recycle bin).
+     * Gets the current version of a document without loading its content.
      * 
-     * @return list of active documents
+     * @param id document ID
+     * @return version or null if not found
      */
-    public List<Document> getAllDocuments() {
-        return documentRepository.findByDeletedFalse();
+    public Long getDocumentVersion(String id) {
+        DocumentCache.Entry cached = documentCache.get(id);
+        if (cached != null && cached.isFresh()) {
+            return cached.getDocument().getVersion();
+        }
+        return documentRepository.findVersionById(id).orElse(null);
     }
 
     /**
-     * Gets all documents in the recycle bin.
+     * Gets the id, version and last modification time of a document.
      * 
-     * @return list of deleted documents
+     * @param id document ID
+     * @return version info or null if not found
      */
-    public List<Document> getRecycleBinDocuments() {
-        return documentRepository.findByDeletedTrue();
+    public DocumentVersionInfo getDocumentVersionInfo(String id) {
+        return documentRepository.findVersionInfoById(id).orElse(null);
+    }
+
+    /**
+     * Gets the id, version and last modification time of several documents.
+     * Unknown IDs are silently skipped.
+     * 
+     * @param ids document IDs
+     * @return version info of the documents that exist
+     */
+    public List<DocumentVersionInfo> getDocumentVersionInfos(Collection<String> ids) {
+        return documentRepository.findVersionInfoByIdIn(ids);
+    }
+
+    /**
+     * Lists one page of documents as summaries, without loading their elements.
+     * Pages are keyed on (lastModified, id), so deep pages cost the same as the
+     * first one and concurrent inserts do not shift later pages.
+     * 
+     * @param deleted   true to list the recycle bin, false for active documents
+     * @param cursor    cursor returned with the previous page, or null for the first page
+     * @param limit     maximum number of documents, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @param direction sort direction on last modification time
+     * @return page of summaries and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public DocumentSummaryPage listDocuments(boolean deleted, String cursor, int limit, Sort.Direction direction) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page follows
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        boolean newestFirst = direction == Sort.Direction.DESC;
+
+        List<DocumentSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = newestFirst
+                    ? documentRepository.findSummariesNewestFirst(deleted, page)
+                    : documentRepository.findSummariesOldestFirst(deleted, page);
+        } else {
+            String[] key = decodeCursor(cursor);
+            LocalDateTime lastModified = LocalDateTime.parse(key[0]);
+            rows = newestFirst
+                    ? documentRepository.findSummariesNewestFirstAfter(deleted, lastModified, key[1], page)
+                    : documentRepository.findSummariesOldestFirstAfter(deleted, lastModified, key[1], page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DocumentSummary> documents = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(documents.get(documents.size() - 1)) : null;
+        return new DocumentSummaryPage(new ArrayList<>(documents), nextCursor, hasMore);
+    }
+
+    private static String encodeCursor(DocumentSummary last) {
+        String key = last.getLastModified().toString() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(CURSOR_SEPARATOR);
+            if (separator < 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String[] parts = { key.substring(0, separator), key.substring(separator + 1) };
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 
     /**
@@ -66,11 +200,12 @@ public class DocumentService {
      * @param id document ID
      * @return true if deleted, false if not found
      */
+    @Transactional
     public boolean deleteDocument(String id) {
         Document doc = documentRepository.findById(id).orElse(null);
         if (doc != null) {
             doc.setDeleted(true);
-            documentRepository.save(doc);
+            saveDocument(doc);
             return true;
         }
         return false;
@@ -82,11 +217,12 @@ public class DocumentService {
      * @param id document ID
      * @return true if restored, false if not found
      */
+    @Transactional
     public boolean restoreDocument(String id) {
         Document doc = documentRepository.findById(id).orElse(null);
         if (doc != null) {
             doc.setDeleted(false);
-            documentRepository.save(doc);
+            saveDocument(doc);
             return true;
         }
         return false;
@@ -98,9 +234,12 @@ public class DocumentService {
      * @param id document ID
      * @return true if deleted, false if not found
      */
+    @Transactional
     public boolean permanentDeleteDocument(String id) {
         if (documentRepository.existsById(id)) {
             documentRepository.deleteById(id);
+            outbox.append(id, OutboxEventType.DOCUMENT_DELETED, null);
+            documentCache.invalidate(id);
             return true;
         }
         return false;
@@ -0,0 +1,167 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.event.DocumentContentEvent;
+import com.collaborativeeditor.event.DocumentEvent;
+import com.collaborativeeditor.event.outbox.OutboxEventType;
+import com.collaborativeeditor.event.outbox.RemoteDocumentChange;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Pushes document change notifications to open editors over Server-Sent
+ * Events, so clients only reload a document when it has actually changed.
+ * Changes committed by other application nodes reach the local subscribers
+ * through {@link RemoteDocumentChange} events.
+ *
+ * @author Arch_Force Team
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentUpdateBroadcaster {
+
+    /** Emitters are completed after this long; EventSource reconnects on its own. */
+    private static final long EMITTER_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    private static final String UPDATE_EVENT = "document-updated";
+
+    private final DocumentRepository documentRepository;
+
+    private final Map<String, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final List<Consumer<Document>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers an in-process listener that is called for every published update,
+     * e.g. to fan updates out over other push channels.
+     *
+     * @param listener callback receiving the saved document
+     */
+    public void addListener(Consumer<Document> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a new SSE subscriber for a document.
+     *
+     * @param documentId document ID
+     * @return emitter bound to the subscriber's connection
+     */
+    public SseEmitter subscribe(String documentId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.compute(documentId, (id, subscribers) -> {
+            Set<SseEmitter> result = subscribers != null ? subscribers : new CopyOnWriteArraySet<>();
+            result.add(emitter);
+            return result;
+        });
+
+        emitter.onCompletion(() -> remove(documentId, emitter));
+        emitter.onTimeout(() -> remove(documentId, emitter));
+        emitter.onError(e -> remove(documentId, emitter));
+
+        return emitter;
+    }
+
+    /**
+     * Publishes the document version saved by a committed content change.
+     *
+     * @param event content change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(DocumentEvent.PUSH_ORDER)
+    public void onContentChanged(DocumentContentEvent event) {
+        publish(event.document());
+    }
+
+    /**
+     * Notifies every subscriber and listener of a document that a new version
+     * was committed.
+     *
+     * @param document document that was just saved
+     */
+    public void publish(Document document) {
+        for (Consumer<Document> listener : listeners) {
+            try {
+                listener.accept(document);
+            } catch (RuntimeException e) {
+                log.warn("Document update listener failed for document {}", document.getId(), e);
+            }
+        }
+
+        sendToSubscribers(document.getId(), document.getVersion(), document.getLastModified());
+    }
+
+    /**
+     * Tells the local SSE subscribers of a document about a version saved by
+     * another application node. In-process listeners subscribe to
+     * {@link RemoteDocumentChange} themselves.
+     *
+     * @param change change relayed from the outbox
+     */
+    @EventListener
+    public void onRemoteChange(RemoteDocumentChange change) {
+        if (change.eventType() != OutboxEventType.DOCUMENT_SAVED || getSubscriberCount(change.documentId()) == 0) {
+            return;
+        }
+        documentRepository.findVersionInfoById(change.documentId())
+                .ifPresent(info -> sendToSubscribers(info.getId(), info.getVersion(), info.getLastModified()));
+    }
+
+    /**
+     * Gets the number of open subscriptions for a document.
+     *
+     * @param documentId document ID
+     * @return subscriber count
+     */
+    public int getSubscriberCount(String documentId) {
+        Set<SseEmitter> subscribers = emitters.get(documentId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    private void sendToSubscribers(String documentId, Long version, LocalDateTime lastModified) {
+        Set<SseEmitter> subscribers = emitters.get(documentId);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("documentId", documentId);
+        payload.put("version", version);
+        payload.put("lastModified", lastModified);
+
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(UPDATE_EVENT).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; drop it so we stop writing to a dead connection
+                log.debug("Dropping SSE subscriber for document {}: {}", documentId, e.getMessage());
+                remove(documentId, emitter);
+            }
+        }
+    }
+
+    private void remove(String documentId, SseEmitter emitter) {
+        emitters.computeIfPresent(documentId, (id, subscribers) -> {
+            subscribers.remove(emitter);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.module1.creation.model.Document;
+
+/**
+ * Outcome of an edit applied by {@link DocumentEditService}.
+ *
+ * @param status   what happened to the edit
+ * @param message  human-readable outcome
+ * @param document edited document, or null if it was not found
+ * @author Arch_Force Team
+ */
+public record EditResult(Status status, String message, Document document) {
+
+    /**
+     * What happened to an edit.
+     */
+    public enum Status {
+        /** The edit was saved. */
+        APPLIED,
+        /** The edit was valid but left the document as it was. */
+        UNCHANGED,
+        /** The document or the element does not exist. */
+        NOT_FOUND,
+        /** The edit does not fit the current document. */
+        INVALID
+    }
+
+    static EditResult applied(String message, Document document) {
+        return new EditResult(Status.APPLIED, message, document);
+    }
+
+    static EditResult unchanged(String message, Document document) {
+        return new EditResult(Status.UNCHANGED, message, document);
+    }
+
+    static EditResult notFound(String message) {
+        return new EditResult(Status.NOT_FOUND, message, null);
+    }
+
+    static EditResult invalid(String message, Document document) {
+        return new EditResult(Status.INVALID, message, document);
+    }
+
+    /**
+     * Whether the edit was accepted, whether or not it changed the document.
+     *
+     * @return true if applied or unchanged
+     */
+    public boolean isSuccess() {
+        return status == Status.APPLIED || status == Status.UNCHANGED;
+    }
+}
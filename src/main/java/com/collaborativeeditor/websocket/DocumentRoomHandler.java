@@ -0,0 +1,288 @@
+package com.collaborativeeditor.websocket;
+
+import com.collaborativeeditor.dto.AddElementRequest;
+import com.collaborativeeditor.dto.ApplyStyleRequest;
+import com.collaborativeeditor.dto.DeleteElementRequest;
+import com.collaborativeeditor.dto.DocumentOperationMessage;
+import com.collaborativeeditor.dto.MoveElementRequest;
+import com.collaborativeeditor.dto.UpdateElementRequest;
+import com.collaborativeeditor.event.outbox.OutboxEventType;
+import com.collaborativeeditor.event.outbox.RemoteDocumentChange;
+import com.collaborativeeditor.module3.versioning.journal.DocumentChange;
+import com.collaborativeeditor.module3.versioning.journal.DocumentChangeJournal;
+import com.collaborativeeditor.service.DocumentEditService;
+import com.collaborativeeditor.service.DocumentService;
+import com.collaborativeeditor.service.DocumentUpdateBroadcaster;
+import com.collaborativeeditor.service.EditResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket endpoint for live collaboration, one room per document.
+ *
+ * Clients send edit operations over the socket. Each one is turned into the
+ * request DTO of the matching REST endpoint, checked against the same bean
+ * validation constraints and applied through the same
+ * {@link DocumentEditService}, so persistence, journal and notifications
+ * behave identically on both channels. Every committed change to a document,
+ * whichever channel it came from, is fanned out to the room as journal deltas,
+ * including changes committed by other application nodes.
+ *
+ * @author Arch_Force Team
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentRoomHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+    private static final String DOCUMENT_ID_ATTRIBUTE = "documentId";
+
+    private final DocumentEditService documentEditService;
+    private final DocumentService documentService;
+    private final DocumentChangeJournal changeJournal;
+    private final DocumentUpdateBroadcaster updateBroadcaster;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+    private ObjectWriter compactWriter;
+
+    @PostConstruct
+    void init() {
+        compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        updateBroadcaster.addListener(document -> broadcastChanges(document.getId(), document.getVersion()));
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String documentId = extractDocumentId(session);
+        Long currentVersion = documentService.getDocumentVersion(documentId);
+        if (currentVersion == null) {
+            session.close(CloseStatus.BAD_DATA.withReason("Document not found"));
+            return;
+        }
+
+        session.getAttributes().put(DOCUMENT_ID_ATTRIBUTE, documentId);
+        WebSocketSession member = new ConcurrentWebSocketSessionDecorator(
+                session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+
+        rooms.compute(documentId, (id, room) -> {
+            Room result = room != null ? room : new Room(currentVersion);
+            result.members.put(session.getId(), member);
+            return result;
+        });
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        String documentId = (String) session.getAttributes().get(DOCUMENT_ID_ATTRIBUTE);
+        if (documentId == null) {
+            return;
+        }
+        rooms.computeIfPresent(documentId, (id, room) -> {
+            room.members.remove(session.getId());
+            return room.members.isEmpty() ? null : room;
+        });
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        String documentId = (String) session.getAttributes().get(DOCUMENT_ID_ATTRIBUTE);
+        Room room = rooms.get(documentId);
+        WebSocketSession member = room != null ? room.members.get(session.getId()) : null;
+        if (member == null) {
+            return;
+        }
+
+        DocumentOperationMessage operation;
+        try {
+            operation = objectMapper.readValue(message.getPayload(), DocumentOperationMessage.class);
+        } catch (IOException e) {
+            send(member, ack(null, false, "Malformed operation"));
+            return;
+        }
+
+        EditResult result;
+        try {
+            result = apply(documentId, operation);
+        } catch (ConstraintViolationException | IllegalArgumentException e) {
+            send(member, ack(operation.getRequestId(), false, e.getMessage()));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("WebSocket operation {} failed on document {}", operation.getOp(), documentId, e);
+            send(member, ack(operation.getRequestId(), false, "Operation failed"));
+            return;
+        }
+
+        send(member, ack(operation.getRequestId(), result.isSuccess(), result.message()));
+    }
+
+    /**
+     * Converts an operation into the request of the REST endpoint it
+     * corresponds to, validates it and applies it.
+     *
+     * @throws ConstraintViolationException if the request is invalid
+     * @throws IllegalArgumentException     if the operation is unknown
+     */
+    private EditResult apply(String documentId, DocumentOperationMessage operation) {
+        String op = operation.getOp() != null ? operation.getOp() : "";
+        switch (op) {
+            case "add-element":
+                return documentEditService.addElement(validated(
+                        new AddElementRequest(documentId, operation.getElementType(), operation.getElementData())));
+            case "update-element": {
+                UpdateElementRequest request = new UpdateElementRequest();
+                request.setDocumentId(documentId);
+                request.setElementId(operation.getElementId());
+                request.setElementData(operation.getElementData());
+                return documentEditService.updateElement(validated(request));
+            }
+            case "delete-element":
+                return documentEditService.deleteElement(validated(
+                        new DeleteElementRequest(documentId, operation.getElementId())));
+            case "move-element":
+                return documentEditService.moveElement(validated(
+                        new MoveElementRequest(documentId, operation.getElementId(), operation.getElementIndex())));
+            case "apply-style":
+                return documentEditService.applyStyles(validated(
+                        new ApplyStyleRequest(documentId, operation.getElementIndex(), operation.getStyles())));
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + op);
+        }
+    }
+
+    /**
+     * Applies the bean validation constraints the REST endpoints enforce with
+     * {@code @Valid}, reporting violations in the same format.
+     */
+    private <T> T validated(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new HashMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            throw new ConstraintViolationException("Validation failed: " + errors, violations);
+        }
+        return request;
+    }
+
+    /**
+     * Fans out a version saved by another application node to the room of the document.
+     *
+     * @param change change relayed from the outbox
+     */
+    @EventListener
+    public void onRemoteChange(RemoteDocumentChange change) {
+        if (change.eventType() == OutboxEventType.DOCUMENT_SAVED) {
+            broadcastChanges(change.documentId(), change.documentVersion());
+        }
+    }
+
+    /**
+     * Sends the journal entries committed since the last broadcast to every
+     * member of the document's room.
+     *
+     * @param documentId document that was just saved
+     * @param version    version the save produced
+     */
+    private void broadcastChanges(String documentId, Long version) {
+        Room room = rooms.get(documentId);
+        if (room == null || version == null) {
+            return;
+        }
+
+        synchronized (room) {
+            long since = room.lastBroadcastVersion;
+            long current = version;
+            if (current <= since) {
+                return;
+            }
+
+            Optional<List<DocumentChange>> changes = changeJournal.getChangesSince(documentId, since, current);
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("documentId", documentId);
+            payload.put("sinceVersion", since);
+            payload.put("currentVersion", current);
+            if (changes.isPresent()) {
+                payload.put("type", "changes");
+                payload.put("changes", changes.get());
+            } else {
+                // The journal cannot describe this jump; members must reload the document
+                payload.put("type", "resync");
+            }
+            room.lastBroadcastVersion = current;
+
+            String json = toJson(payload);
+            for (WebSocketSession member : room.members.values()) {
+                send(member, json);
+            }
+        }
+    }
+
+    private String ack(String requestId, boolean success, String message) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "ack");
+        payload.put("requestId", requestId);
+        payload.put("success", success);
+        payload.put("message", message);
+        return toJson(payload);
+    }
+
+    private void send(WebSocketSession member, String json) {
+        try {
+            member.sendMessage(new TextMessage(json));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not deliver message to WebSocket session {}: {}", member.getId(), e.getMessage());
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return compactWriter.writeValueAsString(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize WebSocket message", e);
+        }
+    }
+
+    private String extractDocumentId(WebSocketSession session) {
+        String path = session.getUri() != null ? session.getUri().getPath() : "";
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Members of a document room and the last version broadcast to them.
+     */
+    private static final class Room {
+
+        private final Map<String, WebSocketSession> members = new ConcurrentHashMap<>();
+        private long lastBroadcastVersion;
+
+        private Room(long lastBroadcastVersion) {
+            this.lastBroadcastVersion = lastBroadcastVersion;
+        }
+    }
+}
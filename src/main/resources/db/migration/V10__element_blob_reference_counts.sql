@@ -0,0 +1,10 @@
+-- Element blobs count the versions referencing them, so the sweep finds
+-- unreferenced blobs without reading every snapshot. Existing versions start
+-- uncounted; the compaction job counts each of them once before sweeping.
+ALTER TABLE document_versions
+    ADD COLUMN blobs_counted BIT NOT NULL DEFAULT 0;
+
+ALTER TABLE element_blobs
+    ADD COLUMN last_referenced_at DATETIME(6),
+    ADD COLUMN ref_count INT NOT NULL DEFAULT 0,
+    ADD INDEX idx_element_blobs_unreferenced (ref_count, hash);
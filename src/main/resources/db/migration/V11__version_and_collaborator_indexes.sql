@@ -0,0 +1,22 @@
+-- Indexes for version and collaborator lookups, matching the @Index and
+-- @UniqueConstraint declarations on DocumentVersion and PersistentCollaborator.
+
+-- Version names must be unique per document before the constraint can exist;
+-- later duplicates keep their name with the row ID appended.
+UPDATE document_versions v
+JOIN (
+    SELECT document_id, version, MIN(id) AS first_id
+    FROM document_versions
+    GROUP BY document_id, version
+    HAVING COUNT(*) > 1
+) d ON v.document_id = d.document_id AND v.version = d.version AND v.id <> d.first_id
+SET v.version = CONCAT(LEFT(v.version, 230), ' (', v.id, ')');
+
+ALTER TABLE document_versions
+    ADD UNIQUE INDEX uk_document_versions_doc_version (document_id, version),
+    ADD INDEX idx_document_versions_doc_time (document_id, snapshot_time),
+    ADD INDEX idx_document_versions_base (base_version_id);
+
+ALTER TABLE collaborators
+    ADD INDEX idx_collaborators_document (document_id),
+    ADD INDEX idx_collaborators_observer (observer_id);
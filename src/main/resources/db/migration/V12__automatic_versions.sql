@@ -0,0 +1,4 @@
+-- Versions taken by the autosave scheduler are flagged so retention can
+-- thin them while keeping the versions users named; existing rows are named.
+ALTER TABLE document_versions
+    ADD COLUMN automatic BIT NOT NULL DEFAULT 0;
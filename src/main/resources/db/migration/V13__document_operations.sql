@@ -0,0 +1,16 @@
+-- Persisted undo/redo log, one row per executed command.
+CREATE TABLE document_operations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    document_id VARCHAR(36) NOT NULL,
+    operation_type ENUM ('ADD_ELEMENT','REMOVE_ELEMENT','REPLACE_ELEMENT','MOVE_ELEMENT','UPDATE_ELEMENT') NOT NULL,
+    position INT NOT NULL,
+    previous_position INT,
+    element_id BIGINT,
+    element_json TEXT,
+    previous_json TEXT,
+    description VARCHAR(255),
+    undone BIT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_document_operations_doc (document_id, id)
+) ENGINE=InnoDB;
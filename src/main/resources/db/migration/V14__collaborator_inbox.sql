@@ -0,0 +1,34 @@
+-- Notifications move from the collaborator_notifications element collection,
+-- rewritten on every notify, to the append-only collaborator_inbox table.
+-- The table matches the CollaboratorNotification entity; INCREMENT BY must
+-- match allocationSize on CollaboratorNotification.id.
+CREATE TABLE collaborator_inbox (
+    id BIGINT NOT NULL,
+    collaborator_id BIGINT NOT NULL,
+    document_id VARCHAR(255) NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_collaborator_inbox_collaborator (collaborator_id, id),
+    INDEX idx_collaborator_inbox_created (created_at)
+) ENGINE=InnoDB;
+
+-- Existing notifications carry no timestamp column, so the TTL counts from
+-- the migration.
+INSERT INTO collaborator_inbox (id, collaborator_id, document_id, message, created_at)
+SELECT ROW_NUMBER() OVER (ORDER BY n.collaborator_id), n.collaborator_id, c.document_id,
+       LEFT(n.message, 1000), NOW(6)
+FROM collaborator_notifications n
+JOIN collaborators c ON c.id = n.collaborator_id
+WHERE n.message IS NOT NULL;
+
+SET @notification_seq_start = (SELECT COALESCE(MAX(id), 0) + 1 FROM collaborator_inbox);
+
+SET @create_notification_seq = CONCAT(
+    'CREATE SEQUENCE notification_seq START WITH ', @notification_seq_start, ' INCREMENT BY 50');
+
+PREPARE create_notification_seq FROM @create_notification_seq;
+EXECUTE create_notification_seq;
+DEALLOCATE PREPARE create_notification_seq;
+
+DROP TABLE collaborator_notifications;
@@ -0,0 +1,12 @@
+-- Changes relayed between application nodes, appended in the transaction
+-- that makes them and purged once every node has polled past them.
+CREATE TABLE document_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    document_id VARCHAR(36) NOT NULL,
+    event_type ENUM ('DOCUMENT_SAVED','DOCUMENT_DELETED','COLLABORATORS_CHANGED') NOT NULL,
+    document_version BIGINT,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_document_outbox_created (created_at)
+) ENGINE=InnoDB;
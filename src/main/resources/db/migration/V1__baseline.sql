@@ -0,0 +1,78 @@
+-- Schema of the last release before migrations were introduced, when
+-- Hibernate still created the tables. Databases created by that release are
+-- baselined at this version and skip it; new databases start here.
+CREATE TABLE documents (
+    id VARCHAR(36) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    metadata TEXT,
+    created_at DATETIME(6),
+    last_modified DATETIME(6),
+    version BIGINT,
+    deleted BIT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE elements (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    element_type VARCHAR(31) NOT NULL,
+    document_id VARCHAR(36),
+    wrapped_element_id BIGINT,
+    content TEXT,
+    level INT,
+    url TEXT,
+    alt_text VARCHAR(255),
+    ordered BIT,
+    language VARCHAR(255),
+    color VARCHAR(255),
+    size VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_1pposbgswqjrhs4xjr9fpygdv UNIQUE (wrapped_element_id),
+    CONSTRAINT FK6tfw9vqwk676lsbsqoy56vvc FOREIGN KEY (document_id) REFERENCES documents (id),
+    CONSTRAINT FKllk2gn8s0tqn0acvffeyq68rq FOREIGN KEY (wrapped_element_id) REFERENCES elements (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE list_items (
+    list_id BIGINT NOT NULL,
+    item VARCHAR(255),
+    CONSTRAINT FKr9biwnlmj2a8m8hpa5b78blce FOREIGN KEY (list_id) REFERENCES elements (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE table_headers (
+    table_id BIGINT NOT NULL,
+    header VARCHAR(255),
+    CONSTRAINT FKr60b1gd6iacyvrxy32jk7ndxg FOREIGN KEY (table_id) REFERENCES elements (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE table_rows (
+    table_id BIGINT NOT NULL,
+    row_data VARCHAR(255),
+    CONSTRAINT FKcbkwj1sjtrl4qjfoiaow1k8t1 FOREIGN KEY (table_id) REFERENCES elements (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE document_versions (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    document_id VARCHAR(255) NOT NULL,
+    version VARCHAR(255) NOT NULL,
+    snapshot_time DATETIME(6),
+    title VARCHAR(255),
+    author VARCHAR(255),
+    metadata TEXT,
+    elements_json TEXT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE collaborators (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    document_id VARCHAR(255) NOT NULL,
+    observer_id VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE collaborator_notifications (
+    collaborator_id BIGINT NOT NULL,
+    message VARCHAR(255),
+    CONSTRAINT FK3lohkpcc0e2iewcwiui0rm97l FOREIGN KEY (collaborator_id) REFERENCES collaborators (id)
+) ENGINE=InnoDB;
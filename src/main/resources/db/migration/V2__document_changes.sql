@@ -0,0 +1,13 @@
+-- Element-level change journal read by the delta sync endpoint.
+CREATE TABLE document_changes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    document_id VARCHAR(36) NOT NULL,
+    document_version BIGINT NOT NULL,
+    change_type ENUM ('ELEMENT_ADDED','ELEMENT_UPDATED','ELEMENT_REMOVED','ELEMENT_REORDERED','DOCUMENT_REPLACED') NOT NULL,
+    element_id BIGINT,
+    position INT,
+    element_json TEXT,
+    changed_at DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_document_changes_doc_version (document_id, document_version)
+) ENGINE=InnoDB;
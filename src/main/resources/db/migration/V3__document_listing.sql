@@ -0,0 +1,10 @@
+-- Document listings page by (last_modified, id), so every row needs a
+-- modification time; rows written without one fall back to their creation
+-- time.
+UPDATE documents
+SET last_modified = COALESCE(created_at, CURRENT_TIMESTAMP(6))
+WHERE last_modified IS NULL;
+
+ALTER TABLE documents
+    MODIFY last_modified DATETIME(6) NOT NULL,
+    ADD INDEX idx_documents_listing (deleted, last_modified, id);
@@ -0,0 +1,16 @@
+-- Element ids move from AUTO_INCREMENT to the pooled element_seq sequence so
+-- inserts can be JDBC-batched. The sequence starts after the highest id handed
+-- out so far.
+-- INCREMENT BY must match allocationSize on Element.id.
+SET @element_seq_start = (
+    SELECT COALESCE(MAX(AUTO_INCREMENT), 1)
+    FROM information_schema.TABLES
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'elements'
+);
+
+SET @create_element_seq = CONCAT(
+    'CREATE SEQUENCE element_seq START WITH ', @element_seq_start, ' INCREMENT BY 50');
+
+PREPARE create_element_seq FROM @create_element_seq;
+EXECUTE create_element_seq;
+DEALLOCATE PREPARE create_element_seq;
@@ -0,0 +1,4 @@
+-- Explicit, gap-based element order. Existing elements keep a NULL key and
+-- their insertion order until their document is next saved.
+ALTER TABLE elements
+    ADD COLUMN order_key BIGINT;
@@ -0,0 +1,10 @@
+-- Version listings read element count and snapshot size from columns instead
+-- of deserializing every snapshot.
+ALTER TABLE document_versions
+    ADD COLUMN element_count INT,
+    ADD COLUMN snapshot_size BIGINT;
+
+UPDATE document_versions
+SET element_count = COALESCE(JSON_LENGTH(elements_json), 0),
+    snapshot_size = COALESCE(OCTET_LENGTH(elements_json), 0)
+WHERE element_count IS NULL;
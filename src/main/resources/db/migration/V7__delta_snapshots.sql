@@ -0,0 +1,5 @@
+-- Versions may be stored as a delta against a base version; existing rows,
+-- where both columns are NULL, read as keyframes.
+ALTER TABLE document_versions
+    ADD COLUMN base_version_id BIGINT,
+    ADD COLUMN chain_length INT;
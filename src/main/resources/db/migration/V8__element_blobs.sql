@@ -0,0 +1,11 @@
+-- Content-addressed element store; hashed snapshots reference its rows.
+-- Existing versions keep snapshot_format NULL and their inline elements.
+CREATE TABLE element_blobs (
+    hash VARCHAR(64) NOT NULL,
+    element_json MEDIUMTEXT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (hash)
+) ENGINE=InnoDB;
+
+ALTER TABLE document_versions
+    ADD COLUMN snapshot_format INT;
@@ -0,0 +1,9 @@
+-- Snapshots and element blobs are written compressed to binary columns. The
+-- text columns only hold rows stored before that, so blobs may leave theirs
+-- NULL.
+ALTER TABLE document_versions
+    ADD COLUMN snapshot LONGBLOB;
+
+ALTER TABLE element_blobs
+    MODIFY element_json MEDIUMTEXT NULL,
+    ADD COLUMN data MEDIUMBLOB;
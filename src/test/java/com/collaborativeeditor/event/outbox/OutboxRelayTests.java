@@ -0,0 +1,156 @@
+package com.collaborativeeditor.event.outbox;
+
+import com.collaborativeeditor.repository.DocumentOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTests {
+
+	private static final String LOCAL_NODE = "local";
+	private static final String REMOTE_NODE = "remote";
+
+	/** Committed outbox rows, i.e. the ones visible to the relay's queries. */
+	private final TreeMap<Long, OutboxEntry> committed = new TreeMap<>();
+	private final List<RemoteDocumentChange> relayed = new ArrayList<>();
+	private DocumentOutboxRepository outboxRepository;
+	private DocumentOutbox outbox;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		outboxRepository = mock(DocumentOutboxRepository.class);
+		when(outboxRepository.findMaxId()).thenAnswer(invocation -> Optional.ofNullable(
+				committed.isEmpty() ? null : committed.lastKey()));
+		when(outboxRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+				.thenAnswer(invocation -> committed.tailMap(invocation.<Long>getArgument(0), false).values().stream()
+						.limit(invocation.<Pageable>getArgument(1).getPageSize())
+						.toList());
+		when(outboxRepository.findAllById(any(Iterable.class)))
+				.thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).stream()
+						.filter(committed::containsKey)
+						.map(committed::get)
+						.toList());
+		outbox = new DocumentOutbox(outboxRepository, LOCAL_NODE);
+	}
+
+	@Test
+	void startsAtNewestEntry() {
+		commit(1, REMOTE_NODE);
+		commit(2, REMOTE_NODE);
+		OutboxRelay relay = relay(Duration.ofHours(1), 500);
+
+		relay.poll();
+		assertThat(relayed).isEmpty();
+
+		commit(3, REMOTE_NODE);
+		relay.poll();
+		assertThat(relayedDocuments()).containsExactly("doc-3");
+	}
+
+	@Test
+	void relaysEntriesCommittedAfterHigherIds() {
+		OutboxRelay relay = relay(Duration.ofHours(1), 500);
+		relay.poll();
+
+		commit(1, REMOTE_NODE);
+		commit(4, REMOTE_NODE);
+		relay.poll();
+		assertThat(relayedDocuments()).containsExactly("doc-1", "doc-4");
+
+		commit(3, REMOTE_NODE);
+		relay.poll();
+		commit(2, REMOTE_NODE);
+		relay.poll();
+		relay.poll();
+		assertThat(relayedDocuments()).containsExactly("doc-1", "doc-4", "doc-3", "doc-2");
+	}
+
+	@Test
+	void forgetsGapsAfterTimeout() {
+		OutboxRelay relay = relay(Duration.ZERO, 500);
+		relay.poll();
+
+		commit(2, REMOTE_NODE);
+		relay.poll();
+		// A rolled-back insert never shows up; once the timeout passes the ID is no longer looked up
+		relay.poll();
+		commit(1, REMOTE_NODE);
+		relay.poll();
+
+		assertThat(relayedDocuments()).containsExactly("doc-2");
+	}
+
+	@Test
+	void skipsEntriesOfThisNode() {
+		OutboxRelay relay = relay(Duration.ofHours(1), 500);
+		relay.poll();
+
+		commit(1, LOCAL_NODE);
+		commit(2, REMOTE_NODE);
+		relay.poll();
+		commit(3, LOCAL_NODE);
+		relay.poll();
+
+		assertThat(relayedDocuments()).containsExactly("doc-2");
+	}
+
+	@Test
+	void readsSeveralBatchesPerPoll() {
+		OutboxRelay relay = relay(Duration.ofHours(1), 2);
+		relay.poll();
+
+		for (long id = 1; id <= 5; id++) {
+			commit(id, REMOTE_NODE);
+		}
+		relay.poll();
+
+		assertThat(relayedDocuments()).containsExactly("doc-1", "doc-2", "doc-3", "doc-4", "doc-5");
+	}
+
+	@Test
+	void keepsRelayingWhenConsumerFails() {
+		OutboxRelay relay = new OutboxRelay(outboxRepository, outbox, event -> {
+			RemoteDocumentChange change = (RemoteDocumentChange) event;
+			if (change.documentId().equals("doc-1")) {
+				throw new IllegalStateException("consumer failed");
+			}
+			relayed.add(change);
+		}, 500, 20, Duration.ofHours(1), Duration.ofHours(1));
+		relay.poll();
+
+		commit(1, REMOTE_NODE);
+		commit(2, REMOTE_NODE);
+		relay.poll();
+
+		assertThat(relayedDocuments()).containsExactly("doc-2");
+	}
+
+	private OutboxRelay relay(Duration gapTimeout, int batchSize) {
+		return new OutboxRelay(outboxRepository, outbox, event -> relayed.add((RemoteDocumentChange) event),
+				batchSize, 20, gapTimeout, Duration.ofHours(1));
+	}
+
+	private void commit(long id, String originNode) {
+		OutboxEntry entry = new OutboxEntry("doc-" + id, OutboxEventType.DOCUMENT_SAVED, id, originNode);
+		entry.setId(id);
+		committed.put(id, entry);
+	}
+
+	private List<String> relayedDocuments() {
+		return relayed.stream().map(RemoteDocumentChange::documentId).toList();
+	}
+}
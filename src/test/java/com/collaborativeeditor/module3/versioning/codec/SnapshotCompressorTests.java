@@ -0,0 +1,132 @@
+package com.collaborativeeditor.module3.versioning.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotCompressorTests {
+
+	private static final String ELEMENT = "{\"type\":\"paragraph\",\"content\":\"Hello\",\"type\":\"paragraph\"}";
+	private static final String SNAPSHOT = "[" + String.join(",", List.of(
+			"{\"type\":\"heading\",\"content\":\"Título\",\"level\":1,\"type\":\"heading\"}",
+			ELEMENT, ELEMENT, ELEMENT,
+			"{\"type\":\"list\",\"content\":\"\",\"ordered\":true,\"items\":[\"uno\",\"dos\"],\"type\":\"list\"}",
+			"{\"type\":\"code\",\"content\":\"x++;\",\"language\":\"java\",\"type\":\"code\"}")) + "]";
+
+	static Stream<SnapshotCodec> codecs() {
+		return Stream.of(new IdentitySnapshotCodec(), new DeflateSnapshotCodec(), new DictionaryDeflateSnapshotCodec());
+	}
+
+	@ParameterizedTest
+	@MethodSource("codecs")
+	void codecRoundTrips(SnapshotCodec codec) {
+		for (String json : List.of("", ELEMENT, SNAPSHOT, "[\"ünïcødé ✓ 文字\"]")) {
+			byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+			assertThat(codec.decode(codec.encode(raw))).isEqualTo(raw);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("codecs")
+	void compressorRoundTrips(SnapshotCodec codec) {
+		SnapshotCompressor compressor = compressor(codec.getName());
+
+		for (String json : List.of("", "[]", ELEMENT, SNAPSHOT)) {
+			assertThat(compressor.decompress(compressor.compress(json))).isEqualTo(json);
+		}
+	}
+
+	@Test
+	void dictionaryBeatsPlainDeflateOnSmallPayloads() {
+		byte[] raw = ELEMENT.getBytes(StandardCharsets.UTF_8);
+
+		byte[] plain = new DeflateSnapshotCodec().encode(raw);
+		byte[] primed = new DictionaryDeflateSnapshotCodec().encode(raw);
+
+		assertThat(primed.length).isLessThan(plain.length);
+	}
+
+	@Test
+	void dictionaryStreamsNeedTheDictionary() {
+		byte[] primed = new DictionaryDeflateSnapshotCodec().encode(ELEMENT.getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> new DeflateSnapshotCodec().decode(primed))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void payloadStartsWithCodecId() {
+		byte[] payload = compressor("deflate-dict").compress(SNAPSHOT);
+
+		assertThat(payload[0]).isEqualTo(DictionaryDeflateSnapshotCodec.ID);
+		assertThat(payload.length).isLessThan(SNAPSHOT.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	void fallsBackToIdentityWhenCompressionDoesNotPay() {
+		byte[] payload = compressor("deflate").compress("[]");
+
+		assertThat(payload[0]).isEqualTo(IdentitySnapshotCodec.ID);
+		assertThat(new String(payload, 1, payload.length - 1, StandardCharsets.UTF_8)).isEqualTo("[]");
+	}
+
+	@Test
+	void readsPayloadsWrittenWithAnotherCodec() {
+		byte[] payload = compressor("deflate").compress(SNAPSHOT);
+
+		assertThat(compressor("deflate-dict").decompress(payload)).isEqualTo(SNAPSHOT);
+	}
+
+	@Test
+	void selectsCodecByNameIgnoringCase() {
+		byte[] payload = compressor("DEFLATE").compress(SNAPSHOT);
+
+		assertThat(payload[0]).isEqualTo(DeflateSnapshotCodec.ID);
+	}
+
+	@Test
+	void rejectsUnknownCodecName() {
+		assertThatThrownBy(() -> compressor("zstd"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("zstd");
+	}
+
+	@Test
+	void rejectsDuplicateCodecIds() {
+		assertThatThrownBy(() -> new SnapshotCompressor(
+				List.of(new IdentitySnapshotCodec(), new IdentitySnapshotCodec()), "none"))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void rejectsUnknownOrEmptyPayloads() {
+		SnapshotCompressor compressor = compressor("deflate-dict");
+
+		assertThatThrownBy(() -> compressor.decompress(new byte[0]))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> compressor.decompress(new byte[] { 42, 1, 2 }))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("42");
+	}
+
+	@Test
+	void rejectsTruncatedPayloads() {
+		byte[] payload = compressor("deflate").compress(SNAPSHOT);
+		byte[] truncated = Arrays.copyOf(payload, payload.length / 2);
+
+		assertThatThrownBy(() -> compressor("deflate").decompress(truncated))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static SnapshotCompressor compressor(String codecName) {
+		return new SnapshotCompressor(codecs().toList(), codecName);
+	}
+}
@@ -0,0 +1,186 @@
+package com.collaborativeeditor.module3.versioning.command;
+
+import com.collaborativeeditor.event.outbox.DocumentOutbox;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Element;
+import com.collaborativeeditor.module1.creation.model.Paragraph;
+import com.collaborativeeditor.repository.DocumentOperationRepository;
+import com.collaborativeeditor.repository.DocumentOutboxRepository;
+import com.collaborativeeditor.repository.DocumentRepository;
+import com.collaborativeeditor.service.DocumentCache;
+import com.collaborativeeditor.service.DocumentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({ CommandInvoker.class, DocumentService.class, DocumentCache.class, DocumentOutbox.class,
+		CommandInvokerTests.Beans.class })
+// Every step loads the document and commits, as each request does behind the controllers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CommandInvokerTests {
+
+	@Autowired
+	private CommandInvoker commandInvoker;
+
+	@Autowired
+	private DocumentService documentService;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private DocumentOperationRepository operationRepository;
+
+	@Autowired
+	private DocumentOutboxRepository outboxRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private String documentId;
+
+	@BeforeEach
+	void setUp() {
+		Document document = Document.builder().title("History").author("Tester").build();
+		documentService.saveDocument(document);
+		documentId = document.getId();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		operationRepository.deleteAll();
+		outboxRepository.deleteAll();
+		documentRepository.deleteAll();
+	}
+
+	@Test
+	void undoAndRedoOfAnUpdateKeepTheElementId() {
+		edit(document -> execute(document, new AddElementCommand(document, new Paragraph("first"))));
+		Long id = elements().get(0).getId();
+		edit(document -> execute(document, new UpdateElementCommand(document, 0, Map.of("content", "second"))));
+		assertThat(contents()).containsExactly("second");
+		assertThat(elements().get(0).getId()).isEqualTo(id);
+
+		assertThat(edit(commandInvoker::undo).getOperationType()).isEqualTo(OperationType.UPDATE_ELEMENT);
+		assertThat(contents()).containsExactly("first");
+		assertThat(elements().get(0).getId()).isEqualTo(id);
+
+		assertThat(edit(commandInvoker::redo).getOperationType()).isEqualTo(OperationType.UPDATE_ELEMENT);
+		assertThat(contents()).containsExactly("second");
+		assertThat(elements().get(0).getId()).isEqualTo(id);
+
+		edit(commandInvoker::undo);
+		assertThat(contents()).containsExactly("first");
+		assertThat(elements().get(0).getId()).isEqualTo(id);
+
+		// Undoing the addition removes the row; redoing it inserts a new one the update then applies to
+		assertThat(edit(commandInvoker::undo).getOperationType()).isEqualTo(OperationType.ADD_ELEMENT);
+		assertThat(elements()).isEmpty();
+		edit(commandInvoker::redo);
+		Long reinserted = elements().get(0).getId();
+		edit(commandInvoker::redo);
+		assertThat(contents()).containsExactly("second");
+		assertThat(elements().get(0).getId()).isEqualTo(reinserted);
+		assertThat(edit(commandInvoker::redo)).isNull();
+	}
+
+	@Test
+	void skipsOperationsOnElementsDeletedByOtherMeans() {
+		edit(document -> execute(document, new AddElementCommand(document, new Paragraph("kept"))));
+		edit(document -> execute(document, new AddElementCommand(document, new Paragraph("gone"))));
+		edit(document -> execute(document, new UpdateElementCommand(document, 1, Map.of("content", "gone 2"))));
+		edit(document -> {
+			document.getElements().remove(1);
+			documentService.saveDocument(document);
+			return null;
+		});
+
+		// Both operations on the deleted element are dropped; the addition before them is undone
+		assertThat(edit(commandInvoker::undo).getOperationType()).isEqualTo(OperationType.ADD_ELEMENT);
+		assertThat(elements()).isEmpty();
+		assertThat(operations()).extracting(DocumentOperation::getOperationType)
+				.containsExactly(OperationType.ADD_ELEMENT);
+		assertThat(edit(commandInvoker::undo)).isNull();
+
+		edit(commandInvoker::redo);
+		assertThat(contents()).containsExactly("kept");
+	}
+
+	@Test
+	void keepsTheNewestOperations() {
+		int added = CommandInvoker.MAX_HISTORY_SIZE + 5;
+		for (int i = 1; i <= added; i++) {
+			String content = "p" + i;
+			edit(document -> execute(document, new AddElementCommand(document, new Paragraph(content))));
+		}
+		assertThat(operations()).hasSize(CommandInvoker.MAX_HISTORY_SIZE);
+
+		for (int i = 0; i < CommandInvoker.MAX_HISTORY_SIZE; i++) {
+			assertThat(edit(commandInvoker::undo)).isNotNull();
+		}
+		assertThat(edit(commandInvoker::undo)).isNull();
+		assertThat(contents()).containsExactly("p1", "p2", "p3", "p4", "p5");
+	}
+
+	private Command execute(Document document, Command command) {
+		commandInvoker.executeCommand(document, command);
+		return command;
+	}
+
+	private Command edit(Function<Document, Command> change) {
+		return new TransactionTemplate(transactionManager)
+				.execute(status -> change.apply(documentService.getDocumentForUpdate(documentId)));
+	}
+
+	private List<Element> elements() {
+		return documentRepository.findWithElementsById(documentId).orElseThrow().getElements();
+	}
+
+	private List<String> contents() {
+		return elements().stream().map(Element::getContent).toList();
+	}
+
+	private List<DocumentOperation> operations() {
+		return operationRepository.findByDocumentIdOrderByIdDesc(documentId, PageRequest.of(0, 100));
+	}
+
+	@TestConfiguration
+	static class Beans {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			// Configured like the application's mapper, which ignores the duplicated type property
+			return Jackson2ObjectMapperBuilder.json().build();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequenceMatcherTests {
+
+	private static final long UNBOUNDED = Long.MAX_VALUE;
+
+	@Test
+	void matchesALongestCommonSubsequence() {
+		List<String> a = tokens("ABCBDAB");
+		List<String> b = tokens("BDCABA");
+
+		List<int[]> pairs = SequenceMatcher.match(a, b, UNBOUNDED);
+
+		assertThat(pairs).hasSize(4);
+		assertIncreasingMatches(a, b, pairs);
+	}
+
+	@Test
+	void matchesCommonPrefixAndSuffixAroundAChange() {
+		List<int[]> pairs = SequenceMatcher.match(tokens("x12y"), tokens("x3y"), UNBOUNDED);
+
+		assertThat(pairs).containsExactly(new int[] { 0, 0 }, new int[] { 3, 2 });
+	}
+
+	@Test
+	void matchesEachOccurrenceOfADuplicateOnce() {
+		List<String> a = tokens("ppq");
+		List<String> b = tokens("pqp");
+
+		List<int[]> pairs = SequenceMatcher.match(a, b, UNBOUNDED);
+
+		assertThat(pairs).hasSize(2);
+		assertIncreasingMatches(a, b, pairs);
+	}
+
+	@Test
+	void leavesTheMiddleUnmatchedWhenItExceedsMaxCells() {
+		List<String> a = tokens("sabce");
+		List<String> b = tokens("scbae");
+
+		// The middle is 3 x 3 = 9 cells
+		assertThat(SequenceMatcher.match(a, b, 4))
+				.containsExactly(new int[] { 0, 0 }, new int[] { 4, 4 });
+		assertThat(SequenceMatcher.match(a, b, 9)).hasSize(3);
+	}
+
+	@Test
+	void matchesNothingAgainstAnEmptySequence() {
+		assertThat(SequenceMatcher.match(tokens(""), tokens("abc"), UNBOUNDED)).isEmpty();
+		assertThat(SequenceMatcher.match(tokens("abc"), tokens(""), UNBOUNDED)).isEmpty();
+	}
+
+	private static List<String> tokens(String letters) {
+		return letters.isEmpty() ? List.of() : Arrays.asList(letters.split(""));
+	}
+
+	private static void assertIncreasingMatches(List<String> a, List<String> b, List<int[]> pairs) {
+		int[] previous = { -1, -1 };
+		for (int[] pair : pairs) {
+			assertThat(a.get(pair[0])).isEqualTo(b.get(pair[1]));
+			assertThat(pair[0]).isGreaterThan(previous[0]);
+			assertThat(pair[1]).isGreaterThan(previous[1]);
+			previous = pair;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import com.collaborativeeditor.dto.TextDiffSegment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextDiffTests {
+
+	@Test
+	void diffsWordByWord() {
+		List<TextDiffSegment> segments = TextDiff.diff("the quick brown fox", "the slow brown fox");
+
+		assertThat(segments).containsExactly(
+				new TextDiffSegment(TextDiffOperation.EQUAL, "the "),
+				new TextDiffSegment(TextDiffOperation.DELETE, "quick"),
+				new TextDiffSegment(TextDiffOperation.INSERT, "slow"),
+				new TextDiffSegment(TextDiffOperation.EQUAL, " brown fox"));
+	}
+
+	@Test
+	void treatsMissingTextAsEmpty() {
+		assertThat(TextDiff.diff(null, "new text"))
+				.containsExactly(new TextDiffSegment(TextDiffOperation.INSERT, "new text"));
+		assertThat(TextDiff.diff("old text", null))
+				.containsExactly(new TextDiffSegment(TextDiffOperation.DELETE, "old text"));
+		assertThat(TextDiff.diff(null, null)).isEmpty();
+	}
+
+	@Test
+	void mergesAdjacentSegmentsOfTheSameOperation() {
+		assertThat(TextDiff.diff("same, text", "same, text"))
+				.containsExactly(new TextDiffSegment(TextDiffOperation.EQUAL, "same, text"));
+	}
+
+	@Test
+	void measuresSimilarityByCommonWords() {
+		assertThat(TextDiff.similarity("a b c d", "a b c d")).isEqualTo(1.0);
+		assertThat(TextDiff.similarity("a b c d", "a b x y")).isEqualTo(0.5);
+		assertThat(TextDiff.similarity("a b", "x y")).isEqualTo(0.0);
+		assertThat(TextDiff.similarity("word word", "word")).isEqualTo(2.0 / 3);
+	}
+
+	@Test
+	void ignoresPunctuationAndSpacingWhenMeasuringSimilarity() {
+		assertThat(TextDiff.similarity("Hello,  world", "Hello world!")).isEqualTo(1.0);
+		assertThat(TextDiff.similarity(null, "")).isEqualTo(1.0);
+	}
+}
@@ -0,0 +1,202 @@
+package com.collaborativeeditor.module3.versioning.diff;
+
+import com.collaborativeeditor.dto.ElementDiff;
+import com.collaborativeeditor.dto.TextDiffSegment;
+import com.collaborativeeditor.dto.VersionDiff;
+import com.collaborativeeditor.module3.versioning.memento.DocumentVersion;
+import com.collaborativeeditor.module3.versioning.memento.MementoCaretaker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VersionDifferTests {
+
+	private static final String DOCUMENT_ID = "doc";
+
+	private MementoCaretaker caretaker;
+	private VersionDiffer differ;
+	private long nextVersionId;
+
+	@BeforeEach
+	void setUp() {
+		caretaker = mock(MementoCaretaker.class);
+		differ = new VersionDiffer(caretaker, new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+	}
+
+	@Test
+	void reportsNothingForIdenticalVersions() {
+		VersionDiff diff = diff(List.of(paragraph("a"), image("x.png")), List.of(paragraph("a"), image("x.png")));
+
+		assertThat(diff.getChanges()).isEmpty();
+	}
+
+	@Test
+	void reportsAddedAndRemovedElements() {
+		VersionDiff diff = diff(
+				List.of(paragraph("kept"), paragraph("dropped entirely")),
+				List.of(paragraph("kept"), paragraph("brand new"), image("new.png")));
+
+		assertThat(diff.getAdded()).isEqualTo(2);
+		assertThat(diff.getRemoved()).isEqualTo(1);
+		assertThat(diff.getModified()).isZero();
+		assertThat(diff.getChanges()).extracting(ElementDiff::getChangeType, ElementDiff::getFromIndex,
+				ElementDiff::getToIndex)
+				.containsExactlyInAnyOrder(
+						tuple(ElementChangeType.REMOVED, 1, null),
+						tuple(ElementChangeType.ADDED, null, 1),
+						tuple(ElementChangeType.ADDED, null, 2));
+	}
+
+	@Test
+	void reportsAnElementFoundElsewhereAsMoved() {
+		VersionDiff diff = diff(
+				List.of(paragraph("one"), paragraph("two"), paragraph("three")),
+				List.of(paragraph("three"), paragraph("one"), paragraph("two")));
+
+		assertThat(diff.getMoved()).isEqualTo(1);
+		assertThat(diff.getChanges()).singleElement().satisfies(change -> {
+			assertThat(change.getChangeType()).isEqualTo(ElementChangeType.MOVED);
+			assertThat(change.getFromIndex()).isEqualTo(2);
+			assertThat(change.getToIndex()).isZero();
+		});
+	}
+
+	@Test
+	void pairsEditedTextAsModifiedWithAWordDiff() {
+		VersionDiff diff = diff(List.of(paragraph("the quick brown fox")), List.of(paragraph("the slow brown fox")));
+
+		assertThat(diff.getModified()).isEqualTo(1);
+		ElementDiff change = diff.getChanges().get(0);
+		assertThat(change.getChangeType()).isEqualTo(ElementChangeType.MODIFIED);
+		assertThat(change.getTextDiff()).contains(
+				new TextDiffSegment(TextDiffOperation.DELETE, "quick"),
+				new TextDiffSegment(TextDiffOperation.INSERT, "slow"));
+	}
+
+	@Test
+	void pairsEditedTextThatAlsoMoved() {
+		VersionDiff diff = diff(
+				List.of(paragraph("stays put"), paragraph("alpha beta gamma delta")),
+				List.of(paragraph("alpha beta gamma epsilon"), paragraph("stays put")));
+
+		assertThat(diff.getChanges()).singleElement().satisfies(change -> {
+			assertThat(change.getChangeType()).isEqualTo(ElementChangeType.MODIFIED);
+			assertThat(change.getFromIndex()).isEqualTo(1);
+			assertThat(change.getToIndex()).isZero();
+		});
+	}
+
+	@Test
+	void reportsDissimilarTextAsReplaced() {
+		VersionDiff diff = diff(List.of(paragraph("completely different")), List.of(paragraph("nothing shared")));
+
+		assertThat(diff.getRemoved()).isEqualTo(1);
+		assertThat(diff.getAdded()).isEqualTo(1);
+		assertThat(diff.getModified()).isZero();
+	}
+
+	@Test
+	void pairsOtherElementsOfTheSameTypeByPosition() {
+		VersionDiff diff = diff(
+				List.of(paragraph("a"), image("old.png"), paragraph("z")),
+				List.of(paragraph("a"), image("new.png"), paragraph("z")));
+
+		assertThat(diff.getChanges()).singleElement().satisfies(change -> {
+			assertThat(change.getChangeType()).isEqualTo(ElementChangeType.MODIFIED);
+			assertThat(change.getElementType()).isEqualTo("image");
+			assertThat(change.getTextDiff()).isNull();
+		});
+	}
+
+	@Test
+	void matchesDuplicateElementsOncePerOccurrence() {
+		VersionDiff added = diff(
+				List.of(paragraph("same"), paragraph("same")),
+				List.of(paragraph("same"), paragraph("other"), paragraph("same")));
+		assertThat(added.getChanges()).extracting(ElementDiff::getChangeType).containsExactly(ElementChangeType.ADDED);
+
+		VersionDiff removed = diff(
+				List.of(paragraph("dup"), paragraph("x"), paragraph("dup")),
+				List.of(paragraph("dup"), paragraph("x")));
+		assertThat(removed.getChanges()).singleElement().satisfies(change -> {
+			assertThat(change.getChangeType()).isEqualTo(ElementChangeType.REMOVED);
+			assertThat(change.getFromIndex()).isEqualTo(2);
+		});
+	}
+
+	@Test
+	void looksThroughDecoratorsForTheElementType() {
+		ObjectNode bold = JsonNodeFactory.instance.objectNode()
+				.put("type", "BoldDecorator");
+		bold.set("wrappedElement", image("logo.png"));
+
+		VersionDiff diff = diff(List.of(image("logo.png")), List.of(bold));
+
+		assertThat(diff.getChanges()).singleElement().satisfies(change -> {
+			assertThat(change.getChangeType()).isEqualTo(ElementChangeType.MODIFIED);
+			assertThat(change.getElementType()).isEqualTo("image");
+		});
+	}
+
+	@Test
+	void cachesDiffsPerVersionPair() {
+		DocumentVersion from = version(1L, "v1", List.of(paragraph("a")));
+		DocumentVersion to = version(2L, "v2", List.of(paragraph("b")));
+
+		VersionDiff first = differ.diff(DOCUMENT_ID, "v1", "v2").orElseThrow();
+		VersionDiff second = differ.diff(DOCUMENT_ID, "v1", "v2").orElseThrow();
+
+		assertThat(second).isSameAs(first);
+		verify(caretaker, times(1)).readElements(from);
+		verify(caretaker, times(1)).readElements(to);
+	}
+
+	@Test
+	void isEmptyWhenAVersionDoesNotExist() {
+		version(1L, "v1", List.of(paragraph("a")));
+		when(caretaker.findVersion(DOCUMENT_ID, "missing")).thenReturn(Optional.empty());
+
+		assertThat(differ.diff(DOCUMENT_ID, "v1", "missing")).isEmpty();
+	}
+
+	private VersionDiff diff(List<JsonNode> before, List<JsonNode> after) {
+		// Fresh row IDs, as diffs are cached per row pair
+		version(++nextVersionId, "v1", before);
+		version(++nextVersionId, "v2", after);
+		return differ.diff(DOCUMENT_ID, "v1", "v2").orElseThrow();
+	}
+
+	private DocumentVersion version(Long id, String name, List<JsonNode> elements) {
+		DocumentVersion version = new DocumentVersion();
+		version.setId(id);
+		version.setDocumentId(DOCUMENT_ID);
+		version.setVersion(name);
+		ArrayNode array = JsonNodeFactory.instance.arrayNode().addAll(elements);
+		when(caretaker.findVersion(DOCUMENT_ID, name)).thenReturn(Optional.of(version));
+		when(caretaker.readElements(version)).thenReturn(array);
+		return version;
+	}
+
+	private static ObjectNode paragraph(String content) {
+		return JsonNodeFactory.instance.objectNode().put("type", "paragraph").put("content", content);
+	}
+
+	private static ObjectNode image(String url) {
+		return JsonNodeFactory.instance.objectNode().put("type", "image").put("url", url);
+	}
+}
@@ -0,0 +1,79 @@
+package com.collaborativeeditor.module3.versioning.journal;
+
+import com.collaborativeeditor.repository.DocumentChangeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentChangeJournalTests {
+
+	private static final String ID = "doc-1";
+
+	@Test
+	void coversConsecutiveVersions() {
+		assertThat(DocumentChangeJournal.covers(changes(3, 4, 5), 2, 5)).isTrue();
+	}
+
+	@Test
+	void coversVersionsWithSeveralEntries() {
+		// A style change journals a removal and an addition under one version
+		assertThat(DocumentChangeJournal.covers(changes(3, 3, 4), 2, 4)).isTrue();
+	}
+
+	@Test
+	void doesNotCoverVersionsWithoutEntries() {
+		assertThat(DocumentChangeJournal.covers(changes(3, 5), 2, 5)).isFalse();
+		assertThat(DocumentChangeJournal.covers(changes(4, 5), 2, 5)).isFalse();
+		assertThat(DocumentChangeJournal.covers(changes(3, 4), 2, 5)).isFalse();
+	}
+
+	@Test
+	void ignoresEntriesCommittedAfterTheCurrentVersion() {
+		assertThat(DocumentChangeJournal.covers(changes(3, 4, 5, 6), 2, 4)).isTrue();
+	}
+
+	@Test
+	void doesNotCoverWholeDocumentReplacements() {
+		List<DocumentChange> changes = changes(3);
+		changes.add(change(4, ChangeType.DOCUMENT_REPLACED));
+		changes.add(change(5, ChangeType.ELEMENT_ADDED));
+
+		assertThat(DocumentChangeJournal.covers(changes, 2, 5)).isFalse();
+		assertThat(DocumentChangeJournal.covers(changes, 2, 3)).isTrue();
+	}
+
+	@Test
+	void changesSinceFallBackToReloadOutsideTheJournal() {
+		DocumentChangeRepository changeRepository = mock(DocumentChangeRepository.class);
+		when(changeRepository.findOldestVersion(ID)).thenReturn(Optional.of(10L));
+		when(changeRepository.findByDocumentIdAndDocumentVersionGreaterThanOrderByIdAsc(eq(ID), anyLong()))
+				.thenReturn(changes(10, 11, 12));
+		DocumentChangeJournal journal = new DocumentChangeJournal(changeRepository, new ObjectMapper());
+
+		assertThat(journal.getChangesSince(ID, 9, 12)).hasValueSatisfying(changes -> assertThat(changes).hasSize(3));
+		assertThat(journal.getChangesSince(ID, 12, 12)).contains(List.of());
+		assertThat(journal.getChangesSince(ID, 8, 12)).isEmpty();
+		assertThat(journal.getChangesSince(ID, 13, 12)).isEmpty();
+	}
+
+	private static List<DocumentChange> changes(long... versions) {
+		List<DocumentChange> changes = new ArrayList<>();
+		for (long version : versions) {
+			changes.add(change(version, ChangeType.ELEMENT_UPDATED));
+		}
+		return changes;
+	}
+
+	private static DocumentChange change(long version, ChangeType type) {
+		return new DocumentChange(ID, version, type, 1L, 0, null);
+	}
+}
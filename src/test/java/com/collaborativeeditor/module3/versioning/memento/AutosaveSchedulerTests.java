@@ -0,0 +1,228 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.event.ElementAdded;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Paragraph;
+import com.collaborativeeditor.repository.DocumentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(AutosaveSchedulerTests.Scheduler.class)
+// Edits must commit for the scheduler to count them, as they do behind the controllers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AutosaveSchedulerTests {
+
+	private static final int EDIT_THRESHOLD = 3;
+	private static final Duration INTERVAL = Duration.ofMinutes(5);
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockBean
+	private MementoCaretaker caretaker;
+
+	/** Element counts of the document as each automatic version saw it. */
+	private final List<Integer> snapshots = new CopyOnWriteArrayList<>();
+	private String documentId;
+
+	@BeforeEach
+	void setUp() {
+		Document document = Document.builder().title("Autosaved").author("Tester").build();
+		documentId = documentRepository.save(document).getId();
+
+		// Reads in its own transaction, like the autosave thread, so only committed edits are visible
+		TransactionTemplate snapshotTransaction = new TransactionTemplate(transactionManager);
+		snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		when(caretaker.saveAutomaticMemento(anyString())).thenAnswer(invocation -> {
+			snapshots.add(snapshotTransaction.execute(status -> documentRepository
+					.findWithElementsById(invocation.getArgument(0)).orElseThrow().getElements().size()));
+			return true;
+		});
+	}
+
+	@AfterEach
+	void cleanUp() {
+		documentRepository.deleteAll();
+	}
+
+	@Test
+	void versionTakenAtThresholdIncludesTheTriggeringEdit() {
+		for (int i = 1; i <= EDIT_THRESHOLD; i++) {
+			addParagraph("edit " + i, false);
+		}
+
+		assertThat(snapshots).containsExactly(EDIT_THRESHOLD);
+	}
+
+	@Test
+	void rolledBackEditsAreNotCounted() {
+		addParagraph("kept 1", false);
+		addParagraph("discarded", true);
+		addParagraph("kept 2", false);
+		assertThat(snapshots).isEmpty();
+
+		addParagraph("kept 3", false);
+		assertThat(snapshots).containsExactly(3);
+	}
+
+	@Test
+	void snapshotsOnTheTickAfterTheInterval() {
+		ManualExecutor executor = new ManualExecutor();
+		AtomicLong clock = new AtomicLong();
+		AutosaveScheduler scheduler = scheduler(executor, clock);
+
+		scheduler.recordEdit("doc-1");
+		clock.addAndGet(INTERVAL.toNanos() - 1);
+		scheduler.snapshotDueDocuments();
+		assertThat(executor.queued).isEmpty();
+
+		clock.incrementAndGet();
+		scheduler.snapshotDueDocuments();
+		executor.runQueued();
+		verify(caretaker).saveAutomaticMemento("doc-1");
+
+		// The edits were consumed by that snapshot
+		clock.addAndGet(INTERVAL.toNanos());
+		scheduler.snapshotDueDocuments();
+		assertThat(executor.queued).isEmpty();
+	}
+
+	@Test
+	void takesOneSnapshotPerDocumentAtATime() {
+		ManualExecutor executor = new ManualExecutor();
+		AutosaveScheduler scheduler = scheduler(executor, new AtomicLong());
+
+		recordEdits(scheduler, EDIT_THRESHOLD);
+		recordEdits(scheduler, EDIT_THRESHOLD);
+		scheduler.snapshotDueDocuments();
+		assertThat(executor.queued).hasSize(1);
+
+		// Edits made while the first snapshot ran are picked up once it is done
+		executor.runQueued();
+		scheduler.snapshotDueDocuments();
+		executor.runQueued();
+		verify(caretaker, times(2)).saveAutomaticMemento("doc-1");
+	}
+
+	@Test
+	void keepsEditsPendingWhileThePoolIsSaturated() {
+		ManualExecutor executor = new ManualExecutor();
+		AutosaveScheduler scheduler = scheduler(executor, new AtomicLong());
+
+		executor.rejecting = true;
+		recordEdits(scheduler, EDIT_THRESHOLD);
+		assertThat(executor.queued).isEmpty();
+
+		executor.rejecting = false;
+		scheduler.snapshotDueDocuments();
+		executor.runQueued();
+		verify(caretaker).saveAutomaticMemento("doc-1");
+	}
+
+	@Test
+	void ignoresEditsWhenDisabled() {
+		ManualExecutor executor = new ManualExecutor();
+		AutosaveScheduler scheduler = new AutosaveScheduler(caretaker, false, INTERVAL, EDIT_THRESHOLD, executor,
+				System::nanoTime);
+
+		recordEdits(scheduler, EDIT_THRESHOLD);
+		scheduler.snapshotDueDocuments();
+
+		assertThat(executor.queued).isEmpty();
+	}
+
+	private AutosaveScheduler scheduler(ManualExecutor executor, AtomicLong clock) {
+		return new AutosaveScheduler(caretaker, true, INTERVAL, EDIT_THRESHOLD, executor, clock::get);
+	}
+
+	private static void recordEdits(AutosaveScheduler scheduler, int count) {
+		for (int i = 0; i < count; i++) {
+			scheduler.recordEdit("doc-1");
+		}
+	}
+
+	private void addParagraph(String content, boolean rollBack) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Document document = documentRepository.findWithElementsById(documentId).orElseThrow();
+			document.addElement(new Paragraph(content));
+			documentRepository.saveAndFlush(document);
+			int position = document.getElements().size() - 1;
+			eventPublisher.publishEvent(new ElementAdded(document, document.getElements().get(position), position));
+			if (rollBack) {
+				status.setRollbackOnly();
+			}
+		});
+	}
+
+	/**
+	 * Queues snapshots until the test runs them, or rejects them like a full pool.
+	 */
+	private static final class ManualExecutor implements Executor {
+
+		private final List<Runnable> queued = new ArrayList<>();
+		private boolean rejecting;
+
+		@Override
+		public void execute(Runnable command) {
+			if (rejecting) {
+				throw new RejectedExecutionException("Queue full");
+			}
+			queued.add(command);
+		}
+
+		private void runQueued() {
+			List<Runnable> due = new ArrayList<>(queued);
+			queued.clear();
+			due.forEach(Runnable::run);
+		}
+	}
+
+	@TestConfiguration
+	static class Scheduler {
+
+		@Bean
+		AutosaveScheduler autosaveScheduler(MementoCaretaker caretaker) {
+			// Snapshots run on the committing thread, so they are done when the edit returns
+			return new AutosaveScheduler(caretaker, true, INTERVAL, EDIT_THRESHOLD, Runnable::run,
+					System::nanoTime);
+		}
+	}
+}
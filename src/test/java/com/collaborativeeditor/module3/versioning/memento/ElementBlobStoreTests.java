@@ -0,0 +1,129 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.module3.versioning.codec.DeflateSnapshotCodec;
+import com.collaborativeeditor.module3.versioning.codec.IdentitySnapshotCodec;
+import com.collaborativeeditor.module3.versioning.codec.SnapshotCompressor;
+import com.collaborativeeditor.repository.ElementBlobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElementBlobStoreTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Set<String> storedHashes = new HashSet<>();
+	private ElementBlobRepository blobRepository;
+	private ElementBlobStore store;
+
+	@BeforeEach
+	void setUp() {
+		blobRepository = mock(ElementBlobRepository.class);
+		when(blobRepository.markReferenced(anyCollection(), any()))
+				.thenAnswer(invocation -> countStored(invocation.getArgument(0)));
+		when(blobRepository.adjustReferences(anyCollection(), anyInt()))
+				.thenAnswer(invocation -> countStored(invocation.getArgument(0)));
+		when(blobRepository.findExistingHashes(anyCollection()))
+				.thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+						.filter(storedHashes::contains)
+						.toList());
+		SnapshotCompressor compressor = new SnapshotCompressor(
+				List.of(new IdentitySnapshotCodec(), new DeflateSnapshotCodec()), "deflate");
+		store = new ElementBlobStore(blobRepository, compressor, objectMapper);
+	}
+
+	@Test
+	void storeMarksEveryBlobOfTheSnapshotAsReferenced() {
+		ArrayNode hashes = store.store(elements("a", "b", "a"));
+		storedHashes.addAll(distinct(hashes));
+
+		ArrayNode again = store.store(elements("a", "b", "a"));
+
+		assertThat(again).isEqualTo(hashes);
+		ArgumentCaptor<Collection<String>> marked = hashesCaptor();
+		verify(blobRepository, times(2)).markReferenced(marked.capture(), any());
+		assertThat(marked.getValue()).containsExactlyInAnyOrderElementsOf(distinct(hashes));
+		// Everything was already stored, so the second snapshot needed no lookup
+		verify(blobRepository, times(1)).findExistingHashes(anyCollection());
+	}
+
+	@Test
+	void storeInsertsOnlyMissingBlobs() {
+		ArrayNode hashes = store.store(elements("kept"));
+		storedHashes.add(hashes.get(0).asText());
+		clearInvocations(blobRepository);
+
+		ArrayNode next = store.store(elements("kept", "swept"));
+
+		String swept = next.get(1).asText();
+		verify(blobRepository).insertIfAbsent(eq(swept), any(byte[].class), any(LocalDateTime.class));
+		verify(blobRepository, never()).insertIfAbsent(eq(hashes.get(0).asText()), any(byte[].class),
+				any(LocalDateTime.class));
+	}
+
+	@Test
+	void addReferencesCountsEachBlobOnce() {
+		ArrayNode hashes = store.store(elements("a", "a", "b"));
+		storedHashes.addAll(distinct(hashes));
+
+		store.addReferences(hashes);
+
+		ArgumentCaptor<Collection<String>> counted = hashesCaptor();
+		verify(blobRepository).adjustReferences(counted.capture(), eq(1));
+		assertThat(counted.getValue()).containsExactlyInAnyOrderElementsOf(distinct(hashes));
+	}
+
+	@Test
+	void addReferencesFailsWhenABlobWasSwept() {
+		ArrayNode hashes = store.store(elements("a", "b"));
+		storedHashes.add(hashes.get(0).asText());
+
+		assertThatThrownBy(() -> store.addReferences(hashes))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("1 of 2");
+	}
+
+	private int countStored(Collection<String> hashes) {
+		return (int) hashes.stream().filter(storedHashes::contains).count();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArgumentCaptor<Collection<String>> hashesCaptor() {
+		return ArgumentCaptor.forClass(Collection.class);
+	}
+
+	private static Set<String> distinct(ArrayNode hashes) {
+		Set<String> distinct = new HashSet<>();
+		hashes.forEach(hash -> distinct.add(hash.asText()));
+		return distinct;
+	}
+
+	private ArrayNode elements(String... contents) {
+		ArrayNode elements = objectMapper.createArrayNode();
+		for (String content : contents) {
+			// Database IDs differ between saves and are not part of the hash
+			elements.addObject().put("id", elements.size() + 1).put("type", "paragraph").put("content", content);
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,153 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.dto.DocumentVersionStamp;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionRetentionPolicyTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 17, 12, 0);
+
+	private final List<DocumentVersionStamp> versions = new ArrayList<>();
+	private long nextId;
+
+	@Test
+	void keepsEverythingWithinKeepAllPeriod() {
+		automatic(NOW.minusMinutes(1));
+		automatic(NOW.minusMinutes(2));
+		automatic(NOW.minusDays(6));
+
+		assertThat(policy(0, true).selectExpired(versions, NOW)).isEmpty();
+	}
+
+	@Test
+	void keepsNewestVersionPerHour() {
+		LocalDateTime hour = NOW.minusDays(10).withMinute(0);
+		long newest = automatic(hour.plusMinutes(50));
+		long older = automatic(hour.plusMinutes(20));
+		long previousHour = automatic(hour.minusMinutes(5));
+
+		assertThat(policy(0, true).selectExpired(versions, NOW))
+				.containsExactly(older)
+				.doesNotContain(newest, previousHour);
+	}
+
+	@Test
+	void keepsNewestVersionPerDay() {
+		LocalDateTime day = NOW.minusDays(60).toLocalDate().atStartOfDay();
+		long newest = automatic(day.plusHours(18));
+		long morning = automatic(day.plusHours(9));
+		long previousDay = automatic(day.minusHours(1));
+
+		assertThat(policy(0, true).selectExpired(versions, NOW))
+				.containsExactly(morning)
+				.doesNotContain(newest, previousDay);
+	}
+
+	@Test
+	void keepsNewestVersionPerWeek() {
+		LocalDateTime monday = LocalDateTime.of(2025, 9, 1, 10, 0);
+		long sunday = automatic(monday.plusDays(6));
+		long wednesday = automatic(monday.plusDays(2));
+		long mondayVersion = automatic(monday);
+		long previousWeek = automatic(monday.minusDays(1));
+
+		assertThat(policy(0, true).selectExpired(versions, NOW))
+				.containsExactly(wednesday, mondayVersion)
+				.doesNotContain(sunday, previousWeek);
+	}
+
+	@Test
+	void capsVersionsPerDocument() {
+		automatic(NOW.minusMinutes(1));
+		automatic(NOW.minusMinutes(2));
+		long third = automatic(NOW.minusMinutes(3));
+		long fourth = automatic(NOW.minusMinutes(4));
+
+		assertThat(policy(2, true).selectExpired(versions, NOW)).containsExactly(third, fourth);
+	}
+
+	@Test
+	void keepsNamedVersionsWhenConfigured() {
+		LocalDateTime hour = NOW.minusDays(10).withMinute(0);
+		automatic(hour.plusMinutes(50));
+		named(hour.plusMinutes(40));
+		long olderAutomatic = automatic(hour.plusMinutes(30));
+		named(hour.plusMinutes(20));
+
+		assertThat(policy(0, true).selectExpired(versions, NOW)).containsExactly(olderAutomatic);
+	}
+
+	@Test
+	void thinsNamedVersionsWhenNotKept() {
+		LocalDateTime hour = NOW.minusDays(10).withMinute(0);
+		automatic(hour.plusMinutes(50));
+		long namedLater = named(hour.plusMinutes(40));
+		long olderAutomatic = automatic(hour.plusMinutes(30));
+		long namedEarlier = named(hour.plusMinutes(20));
+
+		assertThat(policy(0, false).selectExpired(versions, NOW))
+				.containsExactly(namedLater, olderAutomatic, namedEarlier);
+	}
+
+	@Test
+	void namedVersionsDoNotCountTowardsCap() {
+		named(NOW.minusMinutes(1));
+		named(NOW.minusMinutes(2));
+		automatic(NOW.minusMinutes(3));
+		long oldestAutomatic = automatic(NOW.minusMinutes(4));
+
+		assertThat(policy(1, true).selectExpired(versions, NOW)).containsExactly(oldestAutomatic);
+		assertThat(policy(1, false).selectExpired(versions, NOW)).hasSize(3);
+	}
+
+	@Test
+	void keepsVersionsWithoutSnapshotTime() {
+		long undated = automatic(null);
+
+		assertThat(policy(0, true).selectExpired(versions, NOW)).doesNotContain(undated);
+	}
+
+	private static VersionRetentionPolicy policy(int maxPerDocument, boolean keepNamed) {
+		return new VersionRetentionPolicy(Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(180),
+				maxPerDocument, keepNamed);
+	}
+
+	private long automatic(LocalDateTime snapshotTime) {
+		return add(snapshotTime, true);
+	}
+
+	private long named(LocalDateTime snapshotTime) {
+		return add(snapshotTime, false);
+	}
+
+	private long add(LocalDateTime snapshotTime, boolean automatic) {
+		long id = ++nextId;
+		versions.add(new Stamp(id, snapshotTime, automatic));
+		return id;
+	}
+
+	private record Stamp(Long id, LocalDateTime snapshotTime, boolean automatic) implements DocumentVersionStamp {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public LocalDateTime getSnapshotTime() {
+			return snapshotTime;
+		}
+
+		@Override
+		public boolean isAutomatic() {
+			return automatic;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package com.collaborativeeditor.module3.versioning.memento;
+
+import com.collaborativeeditor.module3.versioning.codec.DeflateSnapshotCodec;
+import com.collaborativeeditor.module3.versioning.codec.DictionaryDeflateSnapshotCodec;
+import com.collaborativeeditor.module3.versioning.codec.IdentitySnapshotCodec;
+import com.collaborativeeditor.module3.versioning.codec.SnapshotCompressor;
+import com.collaborativeeditor.repository.DocumentVersionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VersionSnapshotStoreTests {
+
+	private static final int KEYFRAME_INTERVAL = 4;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<Long, DocumentVersion> stored = new HashMap<>();
+	private SnapshotCompressor compressor;
+	private VersionSnapshotStore store;
+	private long nextVersionId;
+
+	@BeforeEach
+	void setUp() {
+		DocumentVersionRepository versionRepository = mock(DocumentVersionRepository.class);
+		when(versionRepository.findById(anyLong()))
+				.thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<Long>getArgument(0))));
+		compressor = new SnapshotCompressor(List.of(new IdentitySnapshotCodec(), new DeflateSnapshotCodec(),
+				new DictionaryDeflateSnapshotCodec()), "deflate-dict");
+		store = new VersionSnapshotStore(versionRepository, compressor, objectMapper, KEYFRAME_INTERVAL);
+	}
+
+	@Test
+	void firstVersionIsKeyframe() {
+		ArrayNode entries = entries("a", "b", "c");
+
+		DocumentVersion version = save(entries, null);
+
+		assertThat(version.getBaseVersionId()).isNull();
+		assertThat(version.getChainLength()).isZero();
+		assertThat(store.read(version)).isEqualTo(entries);
+	}
+
+	@Test
+	void deltaRoundTripsInsertsRemovalsAndReorders() {
+		DocumentVersion base = save(entries(
+				"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta"), null);
+		ArrayNode target = entries(
+				"alpha", "beta", "new", "delta", "epsilon", "gamma", "zeta", "eta", "theta");
+
+		DocumentVersion version = save(target, base);
+
+		assertThat(version.getBaseVersionId()).isEqualTo(base.getId());
+		assertThat(version.getChainLength()).isEqualTo(1);
+		assertThat(store.read(version)).isEqualTo(target);
+		JsonNode delta = storedPayload(version);
+		assertThat(delta.get(0).get("copy").asInt()).isZero();
+		assertThat(delta.get(0).get("count").asInt()).isEqualTo(2);
+		assertThat(delta.get(1).get("insert").get("content").asText()).isEqualTo("new");
+	}
+
+	@Test
+	void deltaKeepsDuplicateEntries() {
+		DocumentVersion base = save(entries(
+				"same", "same", "other", "filler-1", "filler-2", "filler-3", "filler-4"), null);
+		ArrayNode target = entries(
+				"same", "same", "same", "other", "filler-1", "filler-2", "filler-3", "filler-4");
+
+		DocumentVersion version = save(target, base);
+
+		assertThat(version.getBaseVersionId()).isEqualTo(base.getId());
+		assertThat(store.read(version)).isEqualTo(target);
+	}
+
+	@Test
+	void writesKeyframeWhenDeltaIsNotSmaller() {
+		DocumentVersion base = save(entries("a", "b"), null);
+		ArrayNode unrelated = entries("x", "y");
+
+		DocumentVersion version = save(unrelated, base);
+
+		assertThat(version.getBaseVersionId()).isNull();
+		assertThat(version.getChainLength()).isZero();
+		assertThat(store.read(version)).isEqualTo(unrelated);
+	}
+
+	@Test
+	void writesKeyframeEveryInterval() {
+		ArrayNode entries = entries("one", "two", "three", "four", "five", "six");
+		DocumentVersion previous = save(entries, null);
+
+		for (int i = 1; i < KEYFRAME_INTERVAL; i++) {
+			entries = append(entries, "added " + i);
+			previous = save(entries, previous);
+			assertThat(previous.getChainLength()).isEqualTo(i);
+			assertThat(store.read(previous)).isEqualTo(entries);
+		}
+
+		entries = append(entries, "added last");
+		DocumentVersion keyframe = save(entries, previous);
+		assertThat(keyframe.getBaseVersionId()).isNull();
+		assertThat(keyframe.getChainLength()).isZero();
+		assertThat(store.read(keyframe)).isEqualTo(entries);
+	}
+
+	@Test
+	void materializeRewritesDeltaAsKeyframe() {
+		DocumentVersion base = save(entries("one", "two", "three", "four", "five"), null);
+		ArrayNode target = entries("one", "two", "three", "four", "five", "six");
+		DocumentVersion version = save(target, base);
+		assertThat(version.getBaseVersionId()).isNotNull();
+
+		store.materialize(version);
+		stored.remove(base.getId());
+
+		assertThat(version.getBaseVersionId()).isNull();
+		assertThat(version.getChainLength()).isZero();
+		assertThat(store.read(version)).isEqualTo(target);
+	}
+
+	@Test
+	void readFailsWhenBaseIsMissing() {
+		DocumentVersion base = save(entries("one", "two", "three", "four", "five"), null);
+		DocumentVersion version = save(entries("one", "two", "three", "four", "five", "six"), base);
+		stored.remove(base.getId());
+
+		assertThatThrownBy(() -> store.read(version))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Missing base version");
+	}
+
+	@Test
+	void readsLegacyUncompressedRows() {
+		DocumentVersion legacy = new DocumentVersion();
+		legacy.setElementsJson("[{\"type\":\"paragraph\",\"content\":\"old\"}]");
+
+		assertThat(store.read(legacy).get(0).get("content").asText()).isEqualTo("old");
+	}
+
+	private DocumentVersion save(ArrayNode entries, DocumentVersion previous) {
+		DocumentVersion version = new DocumentVersion();
+		version.setId(++nextVersionId);
+		store.write(version, entries, previous, previous != null ? store.read(previous) : null);
+		stored.put(version.getId(), version);
+		return version;
+	}
+
+	private JsonNode storedPayload(DocumentVersion version) {
+		try {
+			return objectMapper.readTree(compressor.decompress(version.getSnapshot()));
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private ArrayNode entries(String... values) {
+		ArrayNode entries = objectMapper.createArrayNode();
+		for (String value : values) {
+			entries.addObject().put("type", "paragraph").put("content", value);
+		}
+		return entries;
+	}
+
+	private ArrayNode append(ArrayNode entries, String value) {
+		ArrayNode copy = entries.deepCopy();
+		copy.addAll(entries(value));
+		return copy;
+	}
+}
@@ -0,0 +1,131 @@
+package com.collaborativeeditor.module4.collaboration.observer;
+
+import com.collaborativeeditor.event.DocumentEvent;
+import com.collaborativeeditor.event.VersionCreated;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class NotificationDispatcherTests {
+
+	private static final Duration WINDOW = Duration.ofMillis(500);
+	private static final int MAX_PENDING_DOCUMENTS = 2;
+
+	/** Notifications as delivered to the collaborators, as "documentId: message". */
+	private final List<String> delivered = new ArrayList<>();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ManualScheduler scheduler;
+	private NotificationDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		DocumentSubject documentSubject = mock(DocumentSubject.class);
+		doAnswer(invocation -> delivered.add(invocation.getArgument(0) + ": " + invocation.getArgument(1)))
+				.when(documentSubject).notifyObservers(anyString(), anyString());
+		scheduler = new ManualScheduler();
+		dispatcher = new NotificationDispatcher(documentSubject, meterRegistry, WINDOW, MAX_PENDING_DOCUMENTS,
+				scheduler);
+	}
+
+	@Test
+	void coalescesEventsWithinTheWindow() {
+		dispatcher.dispatch(new Edit("doc-1", "Element added: paragraph"));
+		dispatcher.dispatch(new Edit("doc-1", "Element added: paragraph"));
+		dispatcher.dispatch(new Edit("doc-1", "Element deleted"));
+		assertThat(delivered).isEmpty();
+		assertThat(scheduler.delays).containsExactly(WINDOW.toMillis());
+
+		scheduler.runScheduled();
+		assertThat(delivered).containsExactly("doc-1: Element added: paragraph (x2); Element deleted");
+
+		// The flushed batch is closed; the next event opens a new window
+		dispatcher.dispatch(new Edit("doc-1", "Element deleted"));
+		assertThat(scheduler.delays).hasSize(2);
+		scheduler.runScheduled();
+		assertThat(delivered).endsWith("doc-1: Element deleted");
+	}
+
+	@Test
+	void deliversOnTheCallerOnceTooManyBatchesAreOpen() {
+		dispatcher.dispatch(new Edit("doc-1", "First"));
+		dispatcher.dispatch(new Edit("doc-2", "Second"));
+		dispatcher.dispatch(new Edit("doc-3", "Third"));
+		assertThat(delivered).containsExactly("doc-3: Third");
+
+		// Documents with an open batch still join it
+		dispatcher.dispatch(new Edit("doc-1", "Fourth"));
+		assertThat(delivered).hasSize(1);
+		assertThat(meterRegistry.counter("editor.notifications.caller.deliveries").count()).isEqualTo(1);
+
+		scheduler.runScheduled();
+		assertThat(delivered).containsExactlyInAnyOrder("doc-3: Third", "doc-1: First; Fourth", "doc-2: Second");
+	}
+
+	@Test
+	void drainsOpenBatchesOnShutdown() throws InterruptedException {
+		dispatcher.dispatch(new Edit("doc-1", "First"));
+		dispatcher.dispatch(new Edit("doc-1", "Second"));
+
+		dispatcher.shutdown();
+		assertThat(delivered).containsExactly("doc-1: First; Second");
+
+		// Nothing is left behind for a window that will never close
+		dispatcher.dispatch(new Edit("doc-1", "Late"));
+		assertThat(delivered).containsExactly("doc-1: First; Second", "doc-1: Late");
+	}
+
+	@Test
+	void skipsAutomaticVersions() {
+		dispatcher.onDocumentEvent(new VersionCreated("doc-1", "Autosave", true));
+		dispatcher.onDocumentEvent(new VersionCreated("doc-1", "v1", false));
+
+		scheduler.runScheduled();
+		assertThat(delivered).hasSize(1);
+	}
+
+	private record Edit(String documentId, String describe) implements DocumentEvent {
+	}
+
+	/**
+	 * Keeps scheduled tasks until the test runs them, instead of waiting for their delay.
+	 */
+	private static final class ManualScheduler extends ScheduledThreadPoolExecutor {
+
+		private final List<Runnable> scheduled = new ArrayList<>();
+		private final List<Long> delays = new ArrayList<>();
+
+		private ManualScheduler() {
+			super(1);
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			if (isShutdown()) {
+				throw new RejectedExecutionException("Shut down");
+			}
+			scheduled.add(command);
+			delays.add(unit.toMillis(delay));
+			return null;
+		}
+
+		private void runScheduled() {
+			List<Runnable> due = new ArrayList<>(scheduled);
+			scheduled.clear();
+			due.forEach(Runnable::run);
+		}
+	}
+}
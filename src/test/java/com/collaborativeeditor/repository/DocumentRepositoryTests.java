@@ -0,0 +1,170 @@
+package com.collaborativeeditor.repository;
+
+import com.collaborativeeditor.dto.DocumentSummary;
+import com.collaborativeeditor.module1.creation.model.*;
+import com.collaborativeeditor.module2.structure.decorator.BoldDecorator;
+import com.collaborativeeditor.module2.structure.decorator.ColorDecorator;
+import com.collaborativeeditor.module2.structure.decorator.StyleDecorator;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// Migrations target MariaDB and are covered by SchemaMigrationTests; the H2 schema comes from the entities
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DocumentRepositoryTests {
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void loadsFullDocumentInConstantNumberOfQueries() {
+		String small = persistDocument(12);
+		String large = persistDocument(300);
+
+		long smallCount = countStatementsToLoad(small);
+		long largeCount = countStatementsToLoad(large);
+
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void insertsElementsInJdbcBatches() {
+		Statistics statistics = statistics();
+		statistics.clear();
+
+		persistDocument(300);
+
+		// Per row work would be several hundred statements
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(30);
+	}
+
+	@Test
+	void movingAnElementRewritesOnlyThatRow() {
+		Document document = Document.builder().title("Ordered").author("Tester").build();
+		for (int i = 0; i < 100; i++) {
+			document.addElement(new Paragraph("Paragraph " + i));
+		}
+		document.assignOrderKeys();
+		documentRepository.saveAndFlush(document);
+		entityManager.clear();
+
+		Document loaded = documentRepository.findWithElementsById(document.getId()).orElseThrow();
+		Statistics statistics = statistics();
+		statistics.clear();
+
+		loaded.moveElement(90, 3);
+		loaded.assignOrderKeys();
+		documentRepository.saveAndFlush(loaded);
+
+		// The moved element and the document's version
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+		entityManager.clear();
+
+		List<Element> reloaded = documentRepository.findWithElementsById(document.getId()).orElseThrow().getElements();
+		assertThat(reloaded.get(3).getContent()).isEqualTo("Paragraph 90");
+		assertThat(reloaded.get(4).getContent()).isEqualTo("Paragraph 3");
+	}
+
+	@Test
+	void listsSummariesByKeysetWithoutLoadingElements() {
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+		for (int i = 0; i < 5; i++) {
+			Document document = Document.builder().title("Listed " + i).author("Tester")
+					.lastModified(base.plusMinutes(i)).build();
+			document.addElement(new Paragraph("p"));
+			document.setLastModified(base.plusMinutes(i));
+			documentRepository.save(document);
+		}
+		Document deleted = Document.builder().title("Deleted").author("Tester").deleted(true).build();
+		documentRepository.saveAndFlush(deleted);
+		entityManager.clear();
+
+		List<DocumentSummary> first = documentRepository.findSummariesNewestFirst(false, PageRequest.of(0, 2));
+		assertThat(first).extracting(DocumentSummary::getTitle).containsExactly("Listed 4", "Listed 3");
+		assertThat(first).allMatch(summary -> summary.getElementCount() == 1);
+
+		DocumentSummary last = first.get(1);
+		List<DocumentSummary> second = documentRepository.findSummariesNewestFirstAfter(
+				false, last.getLastModified(), last.getId(), PageRequest.of(0, 10));
+		assertThat(second).extracting(DocumentSummary::getTitle).containsExactly("Listed 2", "Listed 1", "Listed 0");
+
+		assertThat(documentRepository.findSummariesOldestFirst(true, PageRequest.of(0, 10)))
+				.extracting(DocumentSummary::getTitle).containsExactly("Deleted");
+	}
+
+	private String persistDocument(int elementCount) {
+		Document document = Document.builder().title("Doc " + elementCount).author("Tester").build();
+		for (int i = 0; i < elementCount; i++) {
+			document.addElement(createElement(i));
+		}
+		documentRepository.saveAndFlush(document);
+		entityManager.clear();
+		return document.getId();
+	}
+
+	private Element createElement(int i) {
+		switch (i % 4) {
+			case 0:
+				return new Paragraph("Paragraph " + i);
+			case 1:
+				Table table = Table.builder().headers(List.of("a", "b")).build();
+				table.setRowsFromList(List.of(List.of("1", "2"), List.of("3", "4")));
+				return table;
+			case 2:
+				return new ListElement(List.of("x", "y", "z"), i % 8 == 2);
+			default:
+				return new ColorDecorator(new BoldDecorator(new Heading("Heading " + i, 2)), "red");
+		}
+	}
+
+	private long countStatementsToLoad(String id) {
+		Statistics statistics = statistics();
+		statistics.clear();
+
+		Document document = documentRepository.findWithElementsById(id).orElseThrow();
+		touchAll(document);
+
+		long count = statistics.getPrepareStatementCount();
+		entityManager.clear();
+		return count;
+	}
+
+	private Statistics statistics() {
+		return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	// Walks everything a JSON rendering of the document would read
+	private void touchAll(Document document) {
+		for (Element element : document.getElements()) {
+			Element current = element;
+			while (current instanceof StyleDecorator decorator) {
+				current = decorator.getWrappedElement();
+				current.getContent();
+			}
+			if (current instanceof Table table) {
+				table.getHeaders().size();
+				table.getRows().size();
+			} else if (current instanceof ListElement list) {
+				list.getItems().size();
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.collaborativeeditor.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against MariaDB: a new database must come out
+ * in the shape Hibernate validates, and a database created by the release
+ * before migrations existed must be upgraded in place to the same shape.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTests {
+
+	private static final String LEGACY_DATABASE = "collab_editor_legacy";
+
+	@Container
+	private static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:10.11")
+			.withDatabaseName("collab_editor")
+			.withUsername("root")
+			.withPassword("test");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+		registry.add("spring.datasource.username", MARIADB::getUsername);
+		registry.add("spring.datasource.password", MARIADB::getPassword);
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migratesNewDatabaseToTheValidatedSchema() {
+		// The context only starts once Hibernate has validated the migrated schema
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(flyway.info().applied()).hasSameSizeAs(flyway.info().all());
+	}
+
+	@Test
+	void upgradesReleaseDatabaseInPlace() {
+		jdbcTemplate.execute("DROP DATABASE IF EXISTS " + LEGACY_DATABASE);
+		jdbcTemplate.execute("CREATE DATABASE " + LEGACY_DATABASE);
+		DataSource legacy = new DriverManagerDataSource(
+				MARIADB.getJdbcUrl().replace("/collab_editor", "/" + LEGACY_DATABASE),
+				MARIADB.getUsername(), MARIADB.getPassword());
+		JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+
+		// The release schema, as Hibernate created it, holding rows the later migrations must carry over
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(legacy);
+		legacyJdbc.update("INSERT INTO documents (id, title, author, created_at, last_modified, version, deleted) "
+				+ "VALUES ('doc-1', 'Informe', 'ana', '2024-03-01 10:00:00', NULL, 0, 0), "
+				+ "('doc-2', 'Notas', 'luis', NULL, NULL, 0, 0)");
+		legacyJdbc.update("INSERT INTO elements (id, element_type, document_id, content) "
+				+ "VALUES (41, 'paragraph', 'doc-1', 'Hola')");
+		legacyJdbc.update("INSERT INTO document_versions (id, document_id, version, snapshot_time, elements_json) "
+				+ "VALUES (1, 'doc-1', 'v1', '2024-03-01 10:00:00', '[{\"type\":\"paragraph\"},{\"type\":\"heading\"}]'), "
+				+ "(2, 'doc-1', 'v1', '2024-03-02 10:00:00', '[]')");
+		legacyJdbc.update("INSERT INTO collaborators (id, document_id, observer_id, name, email) "
+				+ "VALUES (7, 'doc-1', 'obs-7', 'Eva', 'eva@example.com')");
+		legacyJdbc.update("INSERT INTO collaborator_notifications (collaborator_id, message) "
+				+ "VALUES (7, 'Documento actualizado'), (7, 'Documento eliminado'), (7, NULL)");
+
+		Flyway.configure()
+				.dataSource(legacy)
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load()
+				.migrate();
+
+		assertThat(legacyJdbc.queryForObject(
+				"SELECT last_modified FROM documents WHERE id = 'doc-1'", LocalDateTime.class))
+				.isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 0));
+		assertThat(legacyJdbc.queryForObject(
+				"SELECT COUNT(*) FROM documents WHERE last_modified IS NULL", Long.class)).isZero();
+		assertThat(legacyJdbc.queryForObject("SELECT NEXTVAL(element_seq)", Long.class)).isEqualTo(42);
+		assertThat(legacyJdbc.queryForList(
+				"SELECT version, element_count, snapshot_size, automatic, blobs_counted "
+						+ "FROM document_versions ORDER BY id"))
+				.extracting(row -> List.of(row.get("version"), row.get("element_count"), row.get("snapshot_size"),
+						row.get("automatic"), row.get("blobs_counted")))
+				.containsExactly(
+						List.of("v1", 2, 41L, false, false),
+						List.of("v1 (2)", 0, 2L, false, false));
+		assertThat(legacyJdbc.queryForList(
+				"SELECT message FROM collaborator_inbox WHERE collaborator_id = 7 AND document_id = 'doc-1' ORDER BY id",
+				String.class))
+				.containsExactlyInAnyOrder("Documento actualizado", "Documento eliminado");
+		assertThat(legacyJdbc.queryForObject("SELECT NEXTVAL(notification_seq)", Long.class)).isEqualTo(3);
+
+		// Same tables, columns and indexes as the new database Hibernate validated
+		assertThat(schemaOf(LEGACY_DATABASE)).isEqualTo(schemaOf("collab_editor"));
+	}
+
+	private List<Map<String, Object>> schemaOf(String database) {
+		List<Map<String, Object>> schema = jdbcTemplate.queryForList(
+				"SELECT TABLE_NAME AS name, COLUMN_NAME AS part, COLUMN_TYPE AS type, IS_NULLABLE AS detail "
+						+ "FROM information_schema.COLUMNS "
+						+ "WHERE TABLE_SCHEMA = ? AND TABLE_NAME <> 'flyway_schema_history' "
+						+ "ORDER BY TABLE_NAME, COLUMN_NAME", database);
+		schema.addAll(jdbcTemplate.queryForList(
+				"SELECT TABLE_NAME AS name, INDEX_NAME AS part, COLUMN_NAME AS type, SEQ_IN_INDEX AS detail "
+						+ "FROM information_schema.STATISTICS "
+						+ "WHERE TABLE_SCHEMA = ? AND TABLE_NAME <> 'flyway_schema_history' "
+						+ "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX", database));
+		return schema;
+	}
+}
@@ -0,0 +1,80 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.event.outbox.OutboxEventType;
+import com.collaborativeeditor.event.outbox.RemoteDocumentChange;
+import com.collaborativeeditor.module1.creation.model.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentCacheTests {
+
+	private static final String ID = "doc-1";
+
+	private final DocumentCache cache = cache(Duration.ofHours(1));
+
+	@Test
+	void ignoresLoadsOlderThanTheLastSave() {
+		Document loadedBeforeSave = document(3);
+		cache.invalidate(document(4));
+
+		cache.put(loadedBeforeSave);
+		assertThat(cache.get(ID)).isNull();
+
+		Document current = document(4);
+		cache.put(current);
+		assertThat(cache.get(ID).getDocument()).isSameAs(current);
+	}
+
+	@Test
+	void keepsTheNewestSavedVersion() {
+		cache.invalidate(document(5));
+		cache.invalidate(document(4)); // a slower save of an older version finishing last
+
+		cache.put(document(4));
+		assertThat(cache.get(ID)).isNull();
+	}
+
+	@Test
+	void ignoresLoadsOlderThanARemoteChange() {
+		cache.put(document(2));
+		cache.onRemoteChange(new RemoteDocumentChange(ID, OutboxEventType.DOCUMENT_SAVED, 3L));
+		assertThat(cache.get(ID)).isNull();
+
+		cache.put(document(2));
+		assertThat(cache.get(ID)).isNull();
+		cache.put(document(3));
+		assertThat(cache.get(ID)).isNotNull();
+	}
+
+	@Test
+	void cachesDocumentsNeverSavedThroughThisNode() {
+		cache.put(document(7));
+
+		assertThat(cache.get(ID).getDocument().getVersion()).isEqualTo(7);
+	}
+
+	@Test
+	void entriesNeedRevalidationAfterTheWindow() {
+		cache.put(document(1));
+		assertThat(cache.get(ID).isFresh()).isTrue();
+
+		DocumentCache revalidating = cache(Duration.ZERO);
+		revalidating.put(document(1));
+		assertThat(revalidating.get(ID).isFresh()).isFalse();
+	}
+
+	private static DocumentCache cache(Duration revalidateAfter) {
+		return new DocumentCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(30), revalidateAfter);
+	}
+
+	private static Document document(long version) {
+		Document document = Document.builder().title("Cached").author("Tester").build();
+		document.setId(ID);
+		document.setVersion(version);
+		return document;
+	}
+}
@@ -0,0 +1,87 @@
+package com.collaborativeeditor.service;
+
+import com.collaborativeeditor.event.outbox.DocumentOutbox;
+import com.collaborativeeditor.event.outbox.OutboxEntry;
+import com.collaborativeeditor.event.outbox.OutboxEventType;
+import com.collaborativeeditor.module1.creation.model.Document;
+import com.collaborativeeditor.module1.creation.model.Paragraph;
+import com.collaborativeeditor.repository.DocumentOutboxRepository;
+import com.collaborativeeditor.repository.DocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({ DocumentService.class, DocumentCache.class, DocumentOutbox.class, DocumentServiceTests.Metrics.class })
+// Service methods must open their own transactions, as they do behind the controllers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DocumentServiceTests {
+
+	@Autowired
+	private DocumentService documentService;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private DocumentOutboxRepository outboxRepository;
+
+	@AfterEach
+	void cleanUp() {
+		outboxRepository.deleteAll();
+		documentRepository.deleteAll();
+	}
+
+	@Test
+	void softDeleteAndRestoreRecordTheChangeAndRefreshTheCache() {
+		Document document = Document.builder().title("Binned").author("Tester").build();
+		document.addElement(new Paragraph("p"));
+		documentService.saveDocument(document);
+		String id = document.getId();
+		assertThat(documentService.getDocument(id).isDeleted()).isFalse();
+
+		assertThat(documentService.deleteDocument(id)).isTrue();
+		assertThat(documentService.getDocument(id).isDeleted()).isTrue();
+
+		assertThat(documentService.restoreDocument(id)).isTrue();
+		Document restored = documentService.getDocument(id);
+		assertThat(restored.isDeleted()).isFalse();
+
+		List<OutboxEntry> entries = outboxRepository.findAll();
+		assertThat(entries).extracting(OutboxEntry::getEventType).containsOnly(OutboxEventType.DOCUMENT_SAVED);
+		assertThat(entries).extracting(OutboxEntry::getDocumentVersion)
+				.containsExactly(restored.getVersion() - 2, restored.getVersion() - 1, restored.getVersion());
+	}
+
+	@Test
+	void softDeleteOfUnknownDocumentChangesNothing() {
+		assertThat(documentService.deleteDocument("missing")).isFalse();
+		assertThat(documentService.restoreDocument("missing")).isFalse();
+		assertThat(outboxRepository.count()).isZero();
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}